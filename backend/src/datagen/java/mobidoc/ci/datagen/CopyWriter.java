@@ -0,0 +1,152 @@
+package mobidoc.ci.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Streams rows into one table through {@code COPY ... FROM STDIN} in Postgres text format.
+ * <p>
+ * Fields are encoded straight into a reusable byte buffer that is handed to the driver whenever it
+ * fills up, so a table of any size is loaded in a single statement without building intermediate
+ * strings per row.
+ */
+final class CopyWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 18;
+
+    private final CopyIn copyIn;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private boolean rowStarted;
+    private long rows;
+
+    private CopyWriter(CopyIn copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    static CopyWriter open(Connection connection, String table, String... columns) throws SQLException {
+        String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN";
+        return new CopyWriter(connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql));
+    }
+
+    CopyWriter uuid(UUID value) throws SQLException {
+        return value == null ? nul() : ascii(value.toString());
+    }
+
+    CopyWriter number(long value) throws SQLException {
+        return ascii(Long.toString(value));
+    }
+
+    CopyWriter decimal(BigDecimal value) throws SQLException {
+        return value == null ? nul() : ascii(value.toPlainString());
+    }
+
+    CopyWriter date(LocalDate value) throws SQLException {
+        return value == null ? nul() : ascii(value.toString());
+    }
+
+    CopyWriter time(LocalTime value) throws SQLException {
+        return ascii(value.toString());
+    }
+
+    CopyWriter timestamp(OffsetDateTime value) throws SQLException {
+        return value == null ? nul() : ascii(value.toString());
+    }
+
+    CopyWriter text(String value) throws SQLException {
+        if (value == null) {
+            return nul();
+        }
+        separator();
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(bytes.length * 2);
+        for (byte b : bytes) {
+            switch (b) {
+                case '\\' -> put('\\', '\\');
+                case '\t' -> put('\\', 't');
+                case '\n' -> put('\\', 'n');
+                case '\r' -> put('\\', 'r');
+                default -> buffer[position++] = b;
+            }
+        }
+        return this;
+    }
+
+    CopyWriter nul() throws SQLException {
+        return ascii("\\N");
+    }
+
+    void endRow() throws SQLException {
+        ensureCapacity(1);
+        buffer[position++] = '\n';
+        rowStarted = false;
+        rows++;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (!copyIn.isActive()) {
+            return;
+        }
+        try {
+            flush();
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private CopyWriter ascii(String value) throws SQLException {
+        separator();
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+        return this;
+    }
+
+    private void separator() throws SQLException {
+        if (rowStarted) {
+            ensureCapacity(1);
+            buffer[position++] = '\t';
+        }
+        rowStarted = true;
+    }
+
+    private void put(char escape, char value) {
+        buffer[position++] = (byte) escape;
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(int bytes) throws SQLException {
+        if (position + bytes > buffer.length) {
+            flush();
+            if (bytes > buffer.length) {
+                throw new IllegalArgumentException("Field of " + bytes + " bytes exceeds the copy buffer");
+            }
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (position > 0) {
+            copyIn.writeToCopy(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
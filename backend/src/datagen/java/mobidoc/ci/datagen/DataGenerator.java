@@ -0,0 +1,633 @@
+package mobidoc.ci.datagen;
+
+import mobidoc.ci.model.enums.AppointmentStatus;
+import mobidoc.ci.model.enums.AppointmentType;
+import mobidoc.ci.model.enums.Gender;
+import mobidoc.ci.model.enums.UserRole;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import static mobidoc.ci.service.availability.SlotAvailabilityEngine.SLOT_MINUTES;
+
+/**
+ * Fills a freshly migrated database with a large, referentially consistent data set: users and profiles,
+ * doctors with weekly schedules, patients, appointments over a past and future window, consultations,
+ * prescriptions, payments, notifications and medical records.
+ * <p>
+ * Every table is streamed with a single {@code COPY} inside one transaction. All values derive from
+ * {@code datagen.seed} and {@code datagen.today}, so two runs with the same settings produce the same rows.
+ * Child rows (consultations, prescriptions, payments, notifications) take ids and attributes hashed from
+ * their appointment id, so only the appointments are kept in memory between passes.
+ * <p>
+ * Settings (system properties): {@code datagen.url}, {@code datagen.username}, {@code datagen.password},
+ * {@code datagen.seed}, {@code datagen.today}, {@code datagen.zone}, {@code datagen.doctors},
+ * {@code datagen.patients}, {@code datagen.appointments}, {@code datagen.history-days},
+ * {@code datagen.future-days}, {@code datagen.records-per-patient}.
+ */
+public final class DataGenerator {
+
+    private static final String[] FIRST_NAMES = {"Amélie", "Hugo", "Léa", "Lucas", "Chloé", "Nathan", "Inès",
+            "Louis", "Manon", "Jules", "Camille", "Gabriel", "Sarah", "Arthur", "Zoé", "Adam", "Emma", "Raphaël",
+            "Jade", "Léo", "Louise", "Maël", "Alice", "Noah", "Lina", "Ethan", "Rose", "Paul", "Anna", "Sacha",
+            "Aïcha", "Moussa", "Fatou", "Ibrahim", "Mariam", "Kofi", "Awa", "Yao", "Aminata", "Koffi"};
+    private static final String[] LAST_NAMES = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard",
+            "Petit", "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefèvre", "Michel", "Garcia", "Fournier",
+            "Girard", "Bonnet", "Dupont", "Lambert", "Fontaine", "Rousseau", "Vincent", "Muller", "Koné", "Traoré",
+            "Kouassi", "Diallo", "Coulibaly", "Yao", "N'Guessan", "Konan", "Bamba", "Ouattara", "Touré", "Camara",
+            "Kouamé", "Diabaté", "Soro", "Cissé", "Gbagbo", "Aka", "Brou", "Ekra", "Tanoh", "Zadi", "Dago", "Séri"};
+    private static final String[] CITIES = {"Abidjan", "Bouaké", "Yamoussoukro", "Daloa", "San-Pédro", "Korhogo",
+            "Man", "Gagnoa", "Paris", "Lyon"};
+    private static final String[] SPECIALITIES = {"General Practice", "General Practice", "General Practice",
+            "Cardiology", "Dermatology", "Neurology", "Paediatrics", "Psychiatry", "Radiology", "Orthopaedics",
+            "Gynaecology", "Ophthalmology", "Endocrinology", "Gastroenterology"};
+    private static final String[] BLOOD_GROUPS = {"O+", "O+", "O+", "A+", "A+", "A+", "B+", "B+", "AB+", "O-",
+            "A-", "B-", "AB-"};
+    private static final String[] CONDITIONS = {"Hypertension", "Type 2 diabetes", "Seasonal asthma",
+            "Sickle cell trait", "Chronic migraine", "Hypothyroidism", "Gastro-oesophageal reflux",
+            "Recurrent malaria", "Chronic kidney disease stage 2", "Osteoarthritis of the knee", "Anaemia",
+            "Generalised anxiety disorder", "Hypercholesterolaemia", "Atrial fibrillation", "Eczema"};
+    private static final String[] ALLERGIES = {"Penicillin", "Sulfonamides", "Aspirin", "Ibuprofen", "Latex",
+            "Peanuts", "Shellfish", "Pollen", "Dust mites", "Iodinated contrast"};
+    private static final String[] SYMPTOMS = {"Fever and chills for three days", "Persistent dry cough",
+            "Headache with photophobia", "Lower back pain", "Abdominal pain after meals", "Shortness of breath on exertion",
+            "Fatigue and dizziness", "Itchy skin rash", "Joint pain and morning stiffness", "Chest tightness",
+            "Sore throat and difficulty swallowing", "Palpitations", "Blurred vision", "Frequent urination"};
+    private static final String[] DIAGNOSES = {"Uncomplicated malaria", "Upper respiratory tract infection",
+            "Tension-type headache", "Mechanical low back pain", "Gastritis", "Asthma exacerbation",
+            "Iron deficiency anaemia", "Contact dermatitis", "Osteoarthritis flare", "Essential hypertension follow-up",
+            "Acute pharyngitis", "Sinus tachycardia", "Refractive error", "Urinary tract infection"};
+    private static final String[][] MEDICATIONS = {
+            {"Paracetamol", "1 g", "Three times daily", "5 days"},
+            {"Amoxicillin", "500 mg", "Three times daily", "7 days"},
+            {"Artemether/lumefantrine", "80/480 mg", "Twice daily", "3 days"},
+            {"Ibuprofen", "400 mg", "Twice daily", "5 days"},
+            {"Omeprazole", "20 mg", "Once daily", "28 days"},
+            {"Salbutamol inhaler", "100 µg", "As needed", "30 days"},
+            {"Amlodipine", "5 mg", "Once daily", "90 days"},
+            {"Metformin", "850 mg", "Twice daily", "90 days"},
+            {"Ferrous sulfate", "200 mg", "Once daily", "60 days"},
+            {"Cetirizine", "10 mg", "Once daily", "14 days"}};
+    private static final String[] RECORD_TYPES = {"CONSULTATION_NOTE", "LAB_RESULT", "IMAGING", "VACCINATION",
+            "SURGERY", "DISCHARGE_SUMMARY"};
+    private static final String[] RECORD_DESCRIPTIONS = {"Full blood count within normal limits",
+            "Thick blood smear positive for Plasmodium falciparum", "Chest X-ray shows no consolidation",
+            "HbA1c at 7.2 percent, diet reinforced", "Hepatitis B vaccine, second dose administered",
+            "Lumbar MRI reveals mild disc protrusion at L4-L5", "Appendectomy performed without complication",
+            "Lipid panel shows elevated LDL cholesterol", "Echocardiogram with preserved ejection fraction",
+            "Renal function stable, creatinine unchanged", "Skin biopsy consistent with eczema",
+            "Discharged after three days of intravenous rehydration"};
+    private static final String[] CANCEL_REASONS = {"Patient unavailable", "Doctor unavailable",
+            "Rescheduled by patient", "Symptoms resolved", "Emergency on the doctor's side"};
+    private static final String[] PAYMENT_METHODS = {"CARD", "CASH", "MOBILE_MONEY", "INSURANCE"};
+
+    private static final String[] STATUSES = {AppointmentStatus.SCHEDULED.name(), AppointmentStatus.COMPLETED.name(),
+            AppointmentStatus.CANCELLED.name()};
+    private static final byte SCHEDULED = 0;
+    private static final byte COMPLETED = 1;
+    private static final byte CANCELLED = 2;
+
+    private final Settings settings;
+    private final Random random;
+    private final long epochStart;
+    private final long epochToday;
+
+    private UUID[] userIds;
+    private int[] firstNames;
+    private int[] lastNames;
+    private UUID[] doctorIds;
+    private int[] doctorFeeCents;
+    private int[][][] doctorSlotStarts;
+    private UUID[] patientIds;
+    private long[] patientCreatedAt;
+    private final Appointments appointments = new Appointments();
+
+    private DataGenerator(Settings settings) {
+        this.settings = settings;
+        this.random = new Random(settings.seed());
+        this.epochToday = settings.today().atStartOfDay(settings.zone()).toEpochSecond();
+        this.epochStart = settings.today().minusDays(settings.historyDays()).atStartOfDay(settings.zone()).toEpochSecond();
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Settings settings = Settings.fromSystemProperties();
+        try (Connection connection = DriverManager.getConnection(settings.url(), settings.username(), settings.password())) {
+            new DataGenerator(settings).generate(connection);
+        }
+    }
+
+    private void generate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet existing = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM users)")) {
+            existing.next();
+            if (existing.getBoolean(1)) {
+                throw new IllegalStateException("Target database already contains users; datagen expects a freshly migrated schema");
+            }
+        }
+
+        long started = System.nanoTime();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            // Counts are tallied while generating and copied in one go instead of upserted per appointment
+            statement.execute("ALTER TABLE appointments DISABLE TRIGGER track_appointments_counts");
+
+            copy(connection, "users", this::users, "id", "username", "email", "keycloak_id", "role", "status",
+                    "created_at", "updated_at");
+            copy(connection, "user_profiles", this::profiles, "id", "user_id", "first_name", "last_name", "phone",
+                    "address", "date_of_birth", "gender", "created_at", "updated_at");
+            copy(connection, "doctors", this::doctors, "id", "user_id", "speciality", "license_number",
+                    "experience_years", "biography", "consultation_fee", "created_at", "updated_at");
+            copy(connection, "schedules", this::schedules, "id", "doctor_id", "day_of_week", "start_time", "end_time",
+                    "status", "created_at", "updated_at");
+            copy(connection, "patients", this::patients, "id", "user_id", "blood_group", "emergency_contact_name",
+                    "emergency_contact_phone", "medical_history", "allergies", "created_at", "updated_at");
+            copy(connection, "medical_records", this::medicalRecords, "id", "patient_id", "type", "description",
+                    "record_date", "created_at", "updated_at");
+            copy(connection, "appointments", this::appointments, "id", "patient_id", "doctor_id",
+                    "appointment_datetime", "status", "type", "notes", "cancel_reason", "duration_minutes",
+                    "created_at", "updated_at");
+            copy(connection, "doctor_appointment_counts", this::appointmentCounts, "doctor_id", "status",
+                    "appointment_count");
+            copy(connection, "consultations", this::consultations, "id", "appointment_id", "symptoms", "diagnosis",
+                    "notes", "follow_up_date", "created_at", "updated_at");
+            copy(connection, "prescriptions", this::prescriptions, "id", "consultation_id", "prescription_date",
+                    "notes", "created_at", "updated_at");
+            copy(connection, "prescription_items", this::prescriptionItems, "id", "prescription_id",
+                    "medication_name", "dosage", "frequency", "duration", "instructions", "created_at", "updated_at");
+            copy(connection, "payments", this::payments, "id", "appointment_id", "amount", "status",
+                    "payment_method", "transaction_id", "payment_date", "created_at", "updated_at");
+            copy(connection, "notifications", this::notifications, "id", "user_id", "type", "title", "content",
+                    "status", "created_at", "read_at");
+
+            statement.execute("ALTER TABLE appointments ENABLE TRIGGER track_appointments_counts");
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+        System.out.printf("Generated data set in %.1f s%n", (System.nanoTime() - started) / 1e9);
+    }
+
+    private void users(CopyWriter out) throws SQLException {
+        int doctors = settings.doctors();
+        int staff = Math.max(1, doctors / 5);
+        int total = doctors + staff + settings.patients();
+        userIds = new UUID[total];
+        firstNames = new int[total];
+        lastNames = new int[total];
+        patientCreatedAt = new long[settings.patients()];
+
+        // Staff and doctors join before the appointment window, patients register steadily until today
+        long staffSince = epochStart - 5L * 365 * 86_400;
+        long patientsSince = epochStart - 3L * 365 * 86_400;
+        for (int i = 0; i < total; i++) {
+            boolean patient = i >= doctors + staff;
+            long createdAt = patient
+                    ? patientsSince + (epochToday - patientsSince) * (i - doctors - staff) / settings.patients()
+                    : staffSince + (epochStart - staffSince) * i / (doctors + staff);
+            UserRole role = i < doctors ? UserRole.DOCTOR : patient ? UserRole.PATIENT : UserRole.STAFF;
+            if (patient) {
+                patientCreatedAt[i - doctors - staff] = createdAt;
+            }
+
+            UUID id = uuid(createdAt);
+            userIds[i] = id;
+            firstNames[i] = random.nextInt(FIRST_NAMES.length);
+            lastNames[i] = random.nextInt(LAST_NAMES.length);
+            String username = role.name().toLowerCase() + "." + i;
+            out.uuid(id).text(username).text(username + "@mobidoc.example").text(id.toString())
+                    .text(role.name()).text(random.nextInt(50) == 0 ? "INACTIVE" : "ACTIVE")
+                    .timestamp(at(createdAt)).timestamp(at(createdAt)).endRow();
+        }
+    }
+
+    private void profiles(CopyWriter out) throws SQLException {
+        Gender[] genders = {Gender.FEMALE, Gender.MALE};
+        for (int i = 0; i < userIds.length; i++) {
+            long createdAt = epochMillis(userIds[i]) / 1000;
+            LocalDate birthDate = settings.today().minusDays(365L * (1 + random.nextInt(90)) + random.nextInt(365));
+            out.uuid(uuid(createdAt)).uuid(userIds[i])
+                    .text(FIRST_NAMES[firstNames[i]]).text(LAST_NAMES[lastNames[i]])
+                    .text(phone())
+                    .text((1 + random.nextInt(200)) + " rue " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                            + ", " + CITIES[random.nextInt(CITIES.length)])
+                    .date(birthDate).text(genders[random.nextInt(genders.length)].name())
+                    .timestamp(at(createdAt)).timestamp(at(createdAt)).endRow();
+        }
+    }
+
+    private void doctors(CopyWriter out) throws SQLException {
+        int count = settings.doctors();
+        doctorIds = new UUID[count];
+        doctorFeeCents = new int[count];
+        for (int i = 0; i < count; i++) {
+            long createdAt = epochMillis(userIds[i]) / 1000;
+            doctorIds[i] = uuid(createdAt);
+            doctorFeeCents[i] = (15 + random.nextInt(16)) * 500;
+            String speciality = SPECIALITIES[random.nextInt(SPECIALITIES.length)];
+            int experience = 1 + random.nextInt(35);
+            out.uuid(doctorIds[i]).uuid(userIds[i]).text(speciality).text(String.format("MD-%07d", i))
+                    .number(experience)
+                    .text(speciality + " practitioner with " + experience + " years of experience in "
+                            + CITIES[random.nextInt(CITIES.length)] + ".")
+                    .decimal(BigDecimal.valueOf(doctorFeeCents[i], 2))
+                    .timestamp(at(createdAt)).timestamp(at(createdAt)).endRow();
+        }
+    }
+
+    private void schedules(CopyWriter out) throws SQLException {
+        doctorSlotStarts = new int[doctorIds.length][8][];
+        for (int i = 0; i < doctorIds.length; i++) {
+            long createdAt = epochMillis(doctorIds[i]) / 1000;
+            boolean partTime = random.nextInt(10) < 3;
+            boolean saturday = random.nextInt(4) == 0;
+            boolean morningsOnly = random.nextInt(5) == 0;
+            int[] days = partTime ? new int[]{1, 3, 5} : new int[]{1, 2, 3, 4, 5};
+            Arrays.fill(doctorSlotStarts[i], new int[0]);
+
+            LocalTime morningStart = LocalTime.of(8, 0).plusMinutes(30L * random.nextInt(3));
+            LocalTime afternoonStart = LocalTime.of(13, 30).plusMinutes(30L * random.nextInt(2));
+            LocalTime afternoonEnd = LocalTime.of(17, 0).plusMinutes(30L * random.nextInt(3));
+            for (int day : days) {
+                int[] morning = schedule(out, i, createdAt, day, morningStart, LocalTime.NOON);
+                int[] afternoon = morningsOnly ? new int[0] : schedule(out, i, createdAt, day, afternoonStart, afternoonEnd);
+                doctorSlotStarts[i][day] = concat(morning, afternoon);
+            }
+            if (saturday) {
+                doctorSlotStarts[i][6] = schedule(out, i, createdAt, 6, LocalTime.of(9, 0), LocalTime.of(12, 30));
+            }
+        }
+    }
+
+    private int[] schedule(CopyWriter out, int doctor, long createdAt, int day, LocalTime start, LocalTime end)
+            throws SQLException {
+        out.uuid(uuid(createdAt)).uuid(doctorIds[doctor]).number(day).time(start).time(end).text("ACTIVE")
+                .timestamp(at(createdAt)).timestamp(at(createdAt)).endRow();
+        int from = start.toSecondOfDay() / 60;
+        int to = end.toSecondOfDay() / 60;
+        int[] slotStarts = new int[Math.max(0, (to - from) / SLOT_MINUTES)];
+        for (int s = 0; s < slotStarts.length; s++) {
+            slotStarts[s] = from + s * SLOT_MINUTES;
+        }
+        return slotStarts;
+    }
+
+    private void patients(CopyWriter out) throws SQLException {
+        int offset = userIds.length - settings.patients();
+        patientIds = new UUID[settings.patients()];
+        for (int i = 0; i < patientIds.length; i++) {
+            long createdAt = patientCreatedAt[i];
+            patientIds[i] = uuid(createdAt);
+            int conditions = Math.max(0, random.nextInt(5) - 1);
+            StringBuilder history = new StringBuilder();
+            for (int c = 0; c < conditions; c++) {
+                history.append(CONDITIONS[random.nextInt(CONDITIONS.length)])
+                        .append(" since ").append(2000 + random.nextInt(25)).append(". ");
+            }
+            String allergies = random.nextInt(10) < 3 ? ALLERGIES[random.nextInt(ALLERGIES.length)] : null;
+            out.uuid(patientIds[i]).uuid(userIds[offset + i])
+                    .text(BLOOD_GROUPS[random.nextInt(BLOOD_GROUPS.length)])
+                    .text(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[lastNames[offset + i]])
+                    .text(phone())
+                    .text(history.isEmpty() ? null : history.toString().trim())
+                    .text(allergies)
+                    .timestamp(at(createdAt)).timestamp(at(createdAt)).endRow();
+        }
+    }
+
+    private void medicalRecords(CopyWriter out) throws SQLException {
+        for (int i = 0; i < patientIds.length; i++) {
+            int records = random.nextInt(2 * settings.recordsPerPatient() + 1);
+            long since = patientCreatedAt[i];
+            for (int r = 0; r < records; r++) {
+                long recordedAt = since + (long) (random.nextDouble() * (epochToday - since));
+                out.uuid(uuid(recordedAt)).uuid(patientIds[i])
+                        .text(RECORD_TYPES[random.nextInt(RECORD_TYPES.length)])
+                        .text(RECORD_DESCRIPTIONS[random.nextInt(RECORD_DESCRIPTIONS.length)] + ". "
+                                + CONDITIONS[random.nextInt(CONDITIONS.length)] + " noted.")
+                        .date(localDate(recordedAt))
+                        .timestamp(at(recordedAt)).timestamp(at(recordedAt)).endRow();
+            }
+        }
+    }
+
+    private void appointments(CopyWriter out) throws SQLException {
+        LocalDate first = settings.today().minusDays(settings.historyDays());
+        LocalDate last = settings.today().plusDays(settings.futureDays());
+        long totalSlots = 0;
+        for (LocalDate date = first; date.isBefore(last); date = date.plusDays(1)) {
+            for (int[][] slotStarts : doctorSlotStarts) {
+                totalSlots += slotStarts[date.getDayOfWeek().getValue()].length;
+            }
+        }
+        double occupancy = Math.min(0.9, (double) settings.appointments() / Math.max(1, totalSlots));
+        if (settings.appointments() > 0.9 * totalSlots) {
+            System.out.printf("Only %d slots in the window, raise datagen.doctors or datagen.history-days "
+                    + "to reach %d appointments%n", totalSlots, settings.appointments());
+        }
+
+        AppointmentType[] types = AppointmentType.values();
+        long patientsSince = patientCreatedAt.length == 0 ? epochToday : patientCreatedAt[0];
+        // Day by day across all doctors, so the heap is physically ordered by appointment time as in production
+        for (LocalDate date = first; date.isBefore(last); date = date.plusDays(1)) {
+            long dayStart = date.atStartOfDay(settings.zone()).toEpochSecond();
+            boolean past = dayStart < epochToday;
+            for (int doctor = 0; doctor < doctorIds.length; doctor++) {
+                for (int slotStart : doctorSlotStarts[doctor][date.getDayOfWeek().getValue()]) {
+                    if (random.nextDouble() >= occupancy) {
+                        continue;
+                    }
+                    long start = date.atTime(LocalTime.ofSecondOfDay(slotStart * 60L))
+                            .atZone(settings.zone()).toEpochSecond();
+                    int patient = patientRegisteredBefore(start, patientsSince);
+                    if (patient < 0) {
+                        continue;
+                    }
+                    byte status = past
+                            ? random.nextInt(100) < 86 ? COMPLETED : CANCELLED
+                            : random.nextInt(100) < 93 ? SCHEDULED : CANCELLED;
+                    long bookedAt = Math.max(patientCreatedAt[patient], Math.min(epochToday,
+                            start - 3_600L - (long) (random.nextDouble() * 30 * 86_400)));
+                    long updatedAt = status == SCHEDULED ? bookedAt : Math.min(start + 3_600L, epochToday);
+                    UUID id = uuid(bookedAt);
+                    appointments.add(id, start, doctor, patient, status);
+
+                    out.uuid(id).uuid(patientIds[patient]).uuid(doctorIds[doctor]).timestamp(at(start))
+                            .text(STATUSES[status]).text(types[random.nextInt(types.length)].name())
+                            .text(random.nextInt(4) == 0 ? SYMPTOMS[random.nextInt(SYMPTOMS.length)] : null)
+                            .text(status == CANCELLED ? CANCEL_REASONS[random.nextInt(CANCEL_REASONS.length)] : null)
+                            .number(SLOT_MINUTES)
+                            .timestamp(at(bookedAt)).timestamp(at(Math.max(bookedAt, updatedAt))).endRow();
+                }
+            }
+        }
+    }
+
+    private void appointmentCounts(CopyWriter out) throws SQLException {
+        long[][] counts = new long[doctorIds.length][STATUSES.length];
+        for (int i = 0; i < appointments.size; i++) {
+            counts[appointments.doctor[i]][appointments.status[i]]++;
+        }
+        for (int doctor = 0; doctor < doctorIds.length; doctor++) {
+            for (int status = 0; status < STATUSES.length; status++) {
+                if (counts[doctor][status] > 0) {
+                    out.uuid(doctorIds[doctor]).text(STATUSES[status]).number(counts[doctor][status]).endRow();
+                }
+            }
+        }
+    }
+
+    private void consultations(CopyWriter out) throws SQLException {
+        for (int i = 0; i < appointments.size; i++) {
+            if (appointments.status[i] != COMPLETED) {
+                continue;
+            }
+            UUID appointmentId = appointments.id(i);
+            long endedAt = appointments.start[i] + SLOT_MINUTES * 60L;
+            LocalDate followUp = hash(appointmentId, 11) % 10 < 3
+                    ? localDate(endedAt).plusDays(7 + hash(appointmentId, 12) % 60) : null;
+            out.uuid(derive(appointmentId, 1)).uuid(appointmentId)
+                    .text(pick(SYMPTOMS, appointmentId, 13)).text(pick(DIAGNOSES, appointmentId, 14))
+                    .text(hash(appointmentId, 15) % 2 == 0 ? "Advice given, review if symptoms persist." : null)
+                    .date(followUp)
+                    .timestamp(at(endedAt)).timestamp(at(endedAt)).endRow();
+        }
+    }
+
+    private void prescriptions(CopyWriter out) throws SQLException {
+        for (int i = 0; i < appointments.size; i++) {
+            UUID appointmentId = appointments.id(i);
+            if (!hasPrescription(i, appointmentId)) {
+                continue;
+            }
+            long endedAt = appointments.start[i] + SLOT_MINUTES * 60L;
+            out.uuid(derive(appointmentId, 2)).uuid(derive(appointmentId, 1)).date(localDate(endedAt))
+                    .text(hash(appointmentId, 21) % 4 == 0 ? "Take with food." : null)
+                    .timestamp(at(endedAt)).timestamp(at(endedAt)).endRow();
+        }
+    }
+
+    private void prescriptionItems(CopyWriter out) throws SQLException {
+        for (int i = 0; i < appointments.size; i++) {
+            UUID appointmentId = appointments.id(i);
+            if (!hasPrescription(i, appointmentId)) {
+                continue;
+            }
+            long endedAt = appointments.start[i] + SLOT_MINUTES * 60L;
+            int items = 1 + (int) (hash(appointmentId, 22) % 3);
+            for (int item = 0; item < items; item++) {
+                String[] medication = MEDICATIONS[(int) (hash(appointmentId, 30 + item) % MEDICATIONS.length)];
+                out.uuid(derive(appointmentId, 30 + item)).uuid(derive(appointmentId, 2))
+                        .text(medication[0]).text(medication[1]).text(medication[2]).text(medication[3])
+                        .text(item == 0 ? "Complete the full course." : null)
+                        .timestamp(at(endedAt)).timestamp(at(endedAt)).endRow();
+            }
+        }
+    }
+
+    private void payments(CopyWriter out) throws SQLException {
+        for (int i = 0; i < appointments.size; i++) {
+            if (appointments.status[i] != COMPLETED) {
+                continue;
+            }
+            UUID appointmentId = appointments.id(i);
+            long paidAt = appointments.start[i] + SLOT_MINUTES * 60L + hash(appointmentId, 41) % 7_200;
+            String method = pick(PAYMENT_METHODS, appointmentId, 42);
+            out.uuid(derive(appointmentId, 4)).uuid(appointmentId)
+                    .decimal(BigDecimal.valueOf(doctorFeeCents[appointments.doctor[i]], 2))
+                    .text(hash(appointmentId, 43) % 20 == 0 ? "PENDING" : "COMPLETED")
+                    .text(method)
+                    .text(method.equals("CASH") ? null : "TX-" + Long.toHexString(hash(appointmentId, 44)).toUpperCase())
+                    .timestamp(at(paidAt)).timestamp(at(paidAt)).timestamp(at(paidAt)).endRow();
+        }
+    }
+
+    private void notifications(CopyWriter out) throws SQLException {
+        int offset = userIds.length - settings.patients();
+        for (int i = 0; i < appointments.size; i++) {
+            UUID appointmentId = appointments.id(i);
+            long start = appointments.start[i];
+            boolean cancelled = appointments.status[i] == CANCELLED;
+            long sentAt = cancelled ? Math.min(start - 3_600L, epochMillis(appointmentId) / 1000 + 86_400)
+                    : start - 86_400L;
+            sentAt = Math.max(sentAt, epochMillis(appointmentId) / 1000);
+            if (sentAt > epochToday) {
+                continue;
+            }
+            boolean read = sentAt < epochToday && hash(appointmentId, 51) % 10 < 8;
+            String when = at(start).atZoneSameInstant(settings.zone()).toLocalDateTime().toString().replace('T', ' ');
+            out.uuid(derive(appointmentId, 5)).uuid(userIds[offset + appointments.patient[i]])
+                    .text(cancelled ? "APPOINTMENT_CANCELLED" : "APPOINTMENT_REMINDER")
+                    .text(cancelled ? "Appointment cancelled" : "Appointment reminder")
+                    .text(cancelled ? "Your appointment on " + when + " has been cancelled."
+                            : "You have an appointment on " + when + ".")
+                    .text(read ? "READ" : "UNREAD")
+                    .timestamp(at(sentAt))
+                    .timestamp(read ? at(sentAt + hash(appointmentId, 52) % 43_200) : null)
+                    .endRow();
+        }
+    }
+
+    private boolean hasPrescription(int appointment, UUID appointmentId) {
+        return appointments.status[appointment] == COMPLETED && hash(appointmentId, 20) % 10 < 6;
+    }
+
+    /**
+     * Picks a patient registered before the appointment, skewed towards long-standing patients who
+     * come back more often. Returns -1 when nobody was registered yet.
+     */
+    private int patientRegisteredBefore(long epochSecond, long patientsSince) {
+        if (epochSecond <= patientsSince) {
+            return -1;
+        }
+        int registered = (int) Math.min(patientCreatedAt.length,
+                (double) patientCreatedAt.length * (epochSecond - patientsSince) / (epochToday - patientsSince));
+        if (registered == 0) {
+            return -1;
+        }
+        double skewed = random.nextDouble();
+        return (int) (registered * skewed * skewed);
+    }
+
+    private void copy(Connection connection, String table, RowSource rows, String... columns) throws SQLException {
+        long started = System.nanoTime();
+        long count;
+        try (CopyWriter out = CopyWriter.open(connection, table, columns)) {
+            rows.write(out);
+            count = out.rows();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%-26s %,12d rows %8.1f s %,12.0f rows/s%n", table, count, seconds, count / Math.max(seconds, 1e-9));
+    }
+
+    private String phone() {
+        return "+225 07" + (10_000_000 + random.nextInt(90_000_000));
+    }
+
+    /** Time-ordered id whose timestamp is the row's creation time, as the application would have assigned it. */
+    private UUID uuid(long epochSecond) {
+        long millis = epochSecond * 1000 + random.nextInt(1000);
+        long mostSigBits = millis << 16 | 0x7000L | random.nextInt(0x1000);
+        long leastSigBits = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static long epochMillis(UUID uuidV7) {
+        return uuidV7.getMostSignificantBits() >>> 16;
+    }
+
+    /** Id of a child row: same timestamp as the parent, random bits hashed from the parent id and a salt. */
+    private static UUID derive(UUID parent, long salt) {
+        long leastSigBits = mix(parent.getLeastSignificantBits() ^ salt * 0x9E3779B97F4A7C15L);
+        return new UUID(parent.getMostSignificantBits(), leastSigBits & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L);
+    }
+
+    private static long hash(UUID id, long salt) {
+        return mix(id.getLeastSignificantBits() + salt * 0xBF58476D1CE4E5B9L) >>> 1;
+    }
+
+    private static String pick(String[] values, UUID id, long salt) {
+        return values[(int) (hash(id, salt) % values.length)];
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private LocalDate localDate(long epochSecond) {
+        return Instant.ofEpochSecond(epochSecond).atZone(settings.zone()).toLocalDate();
+    }
+
+    private static OffsetDateTime at(long epochSecond) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        void write(CopyWriter out) throws SQLException;
+    }
+
+    /** Generated appointments as parallel primitive arrays, the only per-row state kept across passes. */
+    private static final class Appointments {
+
+        private long[] idHigh = new long[1 << 16];
+        private long[] idLow = new long[1 << 16];
+        private long[] start = new long[1 << 16];
+        private int[] doctor = new int[1 << 16];
+        private int[] patient = new int[1 << 16];
+        private byte[] status = new byte[1 << 16];
+        private int size;
+
+        void add(UUID id, long startEpochSecond, int doctorIndex, int patientIndex, byte statusIndex) {
+            if (size == start.length) {
+                int capacity = size * 2;
+                idHigh = Arrays.copyOf(idHigh, capacity);
+                idLow = Arrays.copyOf(idLow, capacity);
+                start = Arrays.copyOf(start, capacity);
+                doctor = Arrays.copyOf(doctor, capacity);
+                patient = Arrays.copyOf(patient, capacity);
+                status = Arrays.copyOf(status, capacity);
+            }
+            idHigh[size] = id.getMostSignificantBits();
+            idLow[size] = id.getLeastSignificantBits();
+            start[size] = startEpochSecond;
+            doctor[size] = doctorIndex;
+            patient[size] = patientIndex;
+            status[size] = statusIndex;
+            size++;
+        }
+
+        UUID id(int index) {
+            return new UUID(idHigh[index], idLow[index]);
+        }
+    }
+
+    private record Settings(String url, String username, String password, long seed, LocalDate today, ZoneId zone,
+                            int doctors, int patients, int appointments, int historyDays, int futureDays,
+                            int recordsPerPatient) {
+
+        static Settings fromSystemProperties() {
+            ZoneId zone = ZoneId.of(System.getProperty("datagen.zone", "UTC"));
+            String today = System.getProperty("datagen.today");
+            return new Settings(
+                    System.getProperty("datagen.url", "jdbc:postgresql://localhost:5432/monolithdb"),
+                    System.getProperty("datagen.username", "postgres"),
+                    System.getProperty("datagen.password", "postgres"),
+                    Long.getLong("datagen.seed", 42),
+                    today == null ? LocalDate.now(zone) : LocalDate.parse(today),
+                    zone,
+                    Integer.getInteger("datagen.doctors", 1_000),
+                    Integer.getInteger("datagen.patients", 200_000),
+                    Integer.getInteger("datagen.appointments", 2_000_000),
+                    Integer.getInteger("datagen.history-days", 730),
+                    Integer.getInteger("datagen.future-days", 90),
+                    Integer.getInteger("datagen.records-per-patient", 3));
+        }
+    }
+}
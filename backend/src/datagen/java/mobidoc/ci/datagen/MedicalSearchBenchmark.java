@@ -0,0 +1,113 @@
+package mobidoc.ci.datagen;
+
+import mobidoc.ci.repository.PatientRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Latency of the ranked full-text medical search ({@link PatientRepository#searchMedicalText}) on a data set
+ * produced by {@link DataGenerator}, next to the {@code LIKE '%term%'} scan it replaced. The search SQL is
+ * read from the repository annotation so the benchmark always runs the query the application runs.
+ * <p>
+ * Size the corpus through the generator, e.g. {@code -Ddatagen.patients=1000000} for one million patients
+ * and three million medical records. Settings (system properties): {@code datagen.url},
+ * {@code datagen.username}, {@code datagen.password}, {@code datagen.benchmark.runs} per term, and
+ * {@code datagen.benchmark.like-timeout} in seconds for the old scan.
+ */
+public final class MedicalSearchBenchmark {
+
+    // Terms taken from the generator's vocabulary: frequent, rare, stemmed and phrase queries
+    private static final String[] TERMS = {"malaria", "hypertension", "penicillin", "cholesterol",
+            "asthma exacerbation", "\"disc protrusion\"", "eczema -dermatitis", "vaccines"};
+    private static final int PAGE_SIZE = 20;
+
+    private MedicalSearchBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("datagen.url", "jdbc:postgresql://localhost:5432/monolithdb");
+        int runs = Integer.getInteger("datagen.benchmark.runs", 20);
+        int likeTimeoutSeconds = Integer.getInteger("datagen.benchmark.like-timeout", 60);
+        String searchSql = PatientRepository.class
+                .getMethod("searchMedicalText", String.class, int.class, long.class)
+                .getAnnotation(Query.class).value()
+                .replace(":query", "?").replace(":limit", "?").replace(":offset", "?");
+
+        try (Connection connection = DriverManager.getConnection(url,
+                System.getProperty("datagen.username", "postgres"), System.getProperty("datagen.password", "postgres"))) {
+            System.out.printf("Corpus: %,d patients, %,d medical records%n",
+                    count(connection, "patients"), count(connection, "medical_records"));
+            System.out.printf("%-24s %10s %10s %10s %10s %12s%n", "term", "rows", "p50 ms", "p95 ms", "max ms", "LIKE ms");
+
+            try (PreparedStatement search = connection.prepareStatement(searchSql);
+                 PreparedStatement like = connection.prepareStatement(
+                         "SELECT count(*) FROM patients WHERE medical_history LIKE '%' || ? || '%'")) {
+                like.setQueryTimeout(likeTimeoutSeconds);
+                for (String term : TERMS) {
+                    int hits = 0;
+                    for (int warmup = 0; warmup < 3; warmup++) {
+                        hits = search(search, term);
+                    }
+                    double[] millis = new double[runs];
+                    for (int run = 0; run < runs; run++) {
+                        long started = System.nanoTime();
+                        search(search, term);
+                        millis[run] = (System.nanoTime() - started) / 1e6;
+                    }
+                    Arrays.sort(millis);
+                    System.out.printf("%-24s %10d %10.2f %10.2f %10.2f %12s%n", term, hits,
+                            percentile(millis, 50), percentile(millis, 95), millis[millis.length - 1],
+                            likeMillis(like, term));
+                }
+            }
+        }
+    }
+
+    private static int search(PreparedStatement search, String term) throws SQLException {
+        search.setString(1, term);
+        search.setInt(2, PAGE_SIZE);
+        search.setLong(3, 0);
+        int hits = 0;
+        try (ResultSet resultSet = search.executeQuery()) {
+            while (resultSet.next()) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    // The old scan has no notion of stemming or phrases, so it only gets the first plain word
+    private static String likeMillis(PreparedStatement like, String term) {
+        String word = term.replace("\"", "").split(" ")[0];
+        long started = System.nanoTime();
+        try {
+            like.setString(1, word);
+            try (ResultSet resultSet = like.executeQuery()) {
+                resultSet.next();
+            }
+            return String.format("%.2f", (System.nanoTime() - started) / 1e6);
+        } catch (SQLException e) {
+            return "timeout";
+        }
+    }
+
+    private static long count(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static double percentile(double[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
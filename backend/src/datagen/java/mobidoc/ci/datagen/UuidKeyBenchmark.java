@@ -0,0 +1,141 @@
+package mobidoc.ci.datagen;
+
+import mobidoc.ci.model.common.UuidV7Generator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput and primary-key index size of an appointments-shaped table keyed by random (v4) and
+ * by time-ordered (v7) UUIDs. Ids are generated client-side as the application does, and rows go out as
+ * batched INSERTs with {@code reWriteBatchedInserts}, one commit per batch. Each variant gets its own
+ * scratch table, dropped afterwards.
+ * <p>
+ * Settings (system properties): {@code datagen.url}, {@code datagen.username}, {@code datagen.password},
+ * {@code datagen.benchmark.rows} (default 10,000,000) and {@code datagen.benchmark.batch-rows}.
+ */
+public final class UuidKeyBenchmark {
+
+    private static final String[] STATUSES = {"SCHEDULED", "COMPLETED", "CANCELLED"};
+
+    private UuidKeyBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("datagen.url", "jdbc:postgresql://localhost:5432/monolithdb");
+        long rows = Long.getLong("datagen.benchmark.rows", 10_000_000);
+        int batchRows = Integer.getInteger("datagen.benchmark.batch-rows", 1_000);
+
+        Properties properties = new Properties();
+        properties.setProperty("user", System.getProperty("datagen.username", "postgres"));
+        properties.setProperty("password", System.getProperty("datagen.password", "postgres"));
+        properties.setProperty("reWriteBatchedInserts", "true");
+        try (Connection connection = DriverManager.getConnection(url, properties)) {
+            Result v4 = run(connection, "v4", UUID::randomUUID, rows, batchRows);
+            Result v7 = run(connection, "v7", UuidV7Generator::next, rows, batchRows);
+
+            System.out.printf("%n%-4s %12s %14s %14s %12s %12s %12s%n",
+                    "key", "rows", "rows/s", "last 10% /s", "pkey MB", "table MB", "WAL MB");
+            for (Result result : new Result[]{v4, v7}) {
+                System.out.printf("%-4s %,12d %,14.0f %,14.0f %,12.1f %,12.1f %,12.1f%n", result.name, rows,
+                        result.rowsPerSecond, result.tailRowsPerSecond, megabytes(result.indexBytes),
+                        megabytes(result.tableBytes), megabytes(result.walBytes));
+            }
+        }
+    }
+
+    private static Result run(Connection connection, String name, Supplier<UUID> ids, long rows, int batchRows)
+            throws SQLException {
+        String table = "benchmark_appointments_" + name;
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, patient_id UUID NOT NULL, "
+                    + "doctor_id UUID NOT NULL, appointment_datetime TIMESTAMP WITH TIME ZONE NOT NULL, "
+                    + "status VARCHAR(20) NOT NULL, type VARCHAR(20) NOT NULL, "
+                    + "created_at TIMESTAMP WITH TIME ZONE NOT NULL)");
+            statement.execute("CHECKPOINT");
+        }
+
+        Random random = new Random(42);
+        UUID[] doctors = new UUID[1_000];
+        for (int i = 0; i < doctors.length; i++) {
+            doctors[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        long tailFrom = rows - rows / 10;
+        long walStart = walPosition(connection);
+        long started = System.nanoTime();
+        long tailStarted = started;
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table
+                + " (id, patient_id, doctor_id, appointment_datetime, status, type, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, 'CONSULTATION', ?)")) {
+            Instant now = Instant.now();
+            for (long row = 0; row < rows; row++) {
+                if (row == tailFrom) {
+                    tailStarted = System.nanoTime();
+                }
+                insert.setObject(1, ids.get());
+                insert.setObject(2, new UUID(random.nextLong(), random.nextLong()));
+                insert.setObject(3, doctors[random.nextInt(doctors.length)]);
+                insert.setTimestamp(4, Timestamp.from(now.plusSeconds(60L * random.nextInt(500_000))));
+                insert.setString(5, STATUSES[random.nextInt(STATUSES.length)]);
+                insert.setTimestamp(6, Timestamp.from(now));
+                insert.addBatch();
+                if ((row + 1) % batchRows == 0 || row + 1 == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+        long finished = System.nanoTime();
+        connection.setAutoCommit(true);
+
+        Result result = new Result(name,
+                rows / ((finished - started) / 1e9),
+                (rows - tailFrom) / Math.max((finished - tailStarted) / 1e9, 1e-9),
+                walPosition(connection) - walStart,
+                size(connection, "pg_relation_size('" + table + "_pkey')"),
+                size(connection, "pg_relation_size('" + table + "')"));
+        System.out.printf("%s: %,.0f rows/s, primary key %,.1f MB%n", name, result.rowsPerSecond,
+                megabytes(result.indexBytes));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+        return result;
+    }
+
+    private static long walPosition(Connection connection) throws SQLException {
+        return size(connection, "pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::BIGINT");
+    }
+
+    private static long size(Connection connection, String expression) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT " + expression)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private record Result(String name, double rowsPerSecond, double tailRowsPerSecond, long walBytes,
+                          long indexBytes, long tableBytes) {
+    }
+}
@@ -0,0 +1,126 @@
+package mobidoc.ci.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file with the committed baseline and exits non-zero when a benchmark got
+ * slower, or allocates more per operation, than the allowed tolerance.
+ * <p>
+ * Usage: {@code BenchmarkBaseline <results.json> <baseline.json>}. With {@code -Dbenchmark.update-baseline=true}
+ * the results are merged into the baseline instead, replacing only the entries with the same benchmark and
+ * parameters, so recording a filtered run keeps the others. A missing baseline fails the check rather than
+ * being recorded silently. Scores only compare meaningfully on the machine that recorded the baseline.
+ */
+public final class BenchmarkBaseline {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    // Allocation per operation is nearly deterministic; a few bytes of slack absorb JIT noise
+    private static final double ALLOCATION_SLACK_BYTES = 16;
+
+    private BenchmarkBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path results = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double timeTolerance = Double.parseDouble(System.getProperty("benchmark.time-tolerance", "0.15"));
+        double allocationTolerance = Double.parseDouble(System.getProperty("benchmark.allocation-tolerance", "0.10"));
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        if (Boolean.getBoolean("benchmark.update-baseline")) {
+            Map<String, JsonNode> merged = Files.exists(baseline)
+                    ? index(objectMapper.readTree(baseline.toFile()))
+                    : new LinkedHashMap<>();
+            merged.putAll(index(objectMapper.readTree(results.toFile())));
+            ArrayNode entries = objectMapper.createArrayNode().addAll(merged.values());
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(baseline.toFile(), entries);
+            System.out.println("Recorded benchmark baseline " + baseline);
+            return;
+        }
+        if (Files.notExists(baseline)) {
+            System.err.println("No benchmark baseline at " + baseline + ", record one with -Dbenchmark.update-baseline=true");
+            System.exit(1);
+        }
+
+        Map<String, JsonNode> expected = index(objectMapper.readTree(baseline.toFile()));
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : index(objectMapper.readTree(results.toFile())).entrySet()) {
+            JsonNode before = expected.get(entry.getKey());
+            if (before == null) {
+                System.out.println("No baseline for " + entry.getKey());
+                continue;
+            }
+            compareScore(entry.getKey(), before, entry.getValue(), timeTolerance, regressions);
+            compareAllocation(entry.getKey(), before, entry.getValue(), allocationTolerance, regressions);
+        }
+
+        if (!regressions.isEmpty()) {
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+        System.out.println("No benchmark regressions against " + baseline);
+    }
+
+    private static void compareScore(String name, JsonNode before, JsonNode after, double tolerance,
+                                     List<String> regressions) {
+        double expected = before.path("primaryMetric").path("score").asDouble();
+        double actual = after.path("primaryMetric").path("score").asDouble();
+        String unit = after.path("primaryMetric").path("scoreUnit").asText();
+        // Throughput improves upwards, every other mode measures time per operation
+        boolean regressed = "thrpt".equals(after.path("mode").asText())
+                ? actual < expected * (1 - tolerance)
+                : actual > expected * (1 + tolerance);
+        if (regressed) {
+            regressions.add(String.format("%s: %.3f -> %.3f %s", name, expected, actual, unit));
+        }
+    }
+
+    private static void compareAllocation(String name, JsonNode before, JsonNode after, double tolerance,
+                                          List<String> regressions) {
+        JsonNode expected = allocation(before);
+        JsonNode actual = allocation(after);
+        if (expected == null || actual == null) {
+            return;
+        }
+        double limit = expected.path("score").asDouble() * (1 + tolerance) + ALLOCATION_SLACK_BYTES;
+        if (actual.path("score").asDouble() > limit) {
+            regressions.add(String.format("%s: allocation %.1f -> %.1f B/op", name,
+                    expected.path("score").asDouble(), actual.path("score").asDouble()));
+        }
+    }
+
+    private static JsonNode allocation(JsonNode result) {
+        // Older JMH versions prefix secondary metric names with a middle dot
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().replace("·", "").equals(ALLOCATION_METRIC)) {
+                return metric.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder name = new StringBuilder(result.path("benchmark").asText());
+            result.path("params").fields().forEachRemaining(param ->
+                    name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            byName.put(name.toString(), result);
+        }
+        return byName;
+    }
+}
@@ -0,0 +1,156 @@
+package mobidoc.ci.benchmark;
+
+import mobidoc.ci.dto.AppointmentDTO;
+import mobidoc.ci.dto.DoctorDTO;
+import mobidoc.ci.dto.ScheduleDTO;
+import mobidoc.ci.dto.UserDTO;
+import mobidoc.ci.model.Doctor;
+import mobidoc.ci.model.Patient;
+import mobidoc.ci.model.Schedule;
+import mobidoc.ci.model.User;
+import mobidoc.ci.model.UserProfile;
+import mobidoc.ci.model.enums.AppointmentStatus;
+import mobidoc.ci.model.enums.AppointmentType;
+import mobidoc.ci.model.enums.Gender;
+import mobidoc.ci.model.enums.ScheduleStatus;
+import mobidoc.ci.model.enums.UserRole;
+import mobidoc.ci.model.enums.UserStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Object graphs shaped like production rows: a user with profile, a doctor with a full weekly schedule,
+ * a patient with filled-in history.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    public static User user(UserRole role) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("jdoe-" + role.name().toLowerCase());
+        user.setEmail("jane.doe+" + role.name().toLowerCase() + "@example.org");
+        user.setKeycloakId(UUID.randomUUID().toString());
+        user.setRole(role);
+        user.setStatus(UserStatus.ACTIVE);
+        user.setCreatedAt(ZonedDateTime.now(ZoneOffset.UTC));
+
+        UserProfile profile = new UserProfile();
+        profile.setId(UUID.randomUUID());
+        profile.setUser(user);
+        profile.setFirstName("Jane");
+        profile.setLastName("Doe-Martinez");
+        profile.setPhone("+33612345678");
+        profile.setAddress("12 rue de la Paix, 75002 Paris");
+        profile.setDateOfBirth(LocalDate.of(1984, 3, 17));
+        profile.setGender(Gender.values()[0]);
+        user.setProfile(profile);
+        return user;
+    }
+
+    public static Doctor doctor() {
+        Doctor doctor = new Doctor();
+        doctor.setId(UUID.randomUUID());
+        doctor.setUser(user(UserRole.DOCTOR));
+        doctor.setSpeciality("Cardiology");
+        doctor.setLicenseNumber("FR-75-0012345");
+        doctor.setExperienceYears(14);
+        doctor.setBiography("Interventional cardiologist with a focus on preventive care and rehabilitation.");
+        doctor.setConsultationFee(new BigDecimal("60.00"));
+        doctor.setSchedules(new ArrayList<>());
+        doctor.setAppointments(new ArrayList<>());
+        for (int day = 1; day <= 5; day++) {
+            doctor.addSchedule(schedule(day, LocalTime.of(8, 0), LocalTime.of(12, 0)));
+            doctor.addSchedule(schedule(day, LocalTime.of(13, 0), LocalTime.of(18, 0)));
+        }
+        return doctor;
+    }
+
+    public static Patient patient() {
+        Patient patient = new Patient();
+        patient.setId(UUID.randomUUID());
+        patient.setUser(user(UserRole.PATIENT));
+        patient.setBloodGroup("O+");
+        patient.setEmergencyContactName("John Doe");
+        patient.setEmergencyContactPhone("+33698765432");
+        patient.setMedicalHistory("Hypertension diagnosed 2015, treated with amlodipine. Appendectomy 2002.");
+        patient.setAllergies("Penicillin, latex");
+        patient.setMedicalRecords(new ArrayList<>());
+        patient.setAppointments(new ArrayList<>());
+        patient.setDocuments(new ArrayList<>());
+        return patient;
+    }
+
+    public static UserDTO userDto(UserRole role) {
+        UserDTO user = new UserDTO();
+        user.setId(UUID.randomUUID());
+        user.setUsername("jdoe-" + role.name().toLowerCase());
+        user.setEmail("jane.doe@example.org");
+        user.setRole(role);
+        user.setStatus(UserStatus.ACTIVE);
+        return user;
+    }
+
+    public static DoctorDTO doctorDto() {
+        DoctorDTO doctor = new DoctorDTO();
+        doctor.setId(UUID.randomUUID());
+        doctor.setUser(userDto(UserRole.DOCTOR));
+        doctor.setSpeciality("Cardiology");
+        doctor.setLicenseNumber("FR-75-0012345");
+        doctor.setExperienceYears(14);
+        doctor.setBiography("Interventional cardiologist with a focus on preventive care and rehabilitation.");
+        doctor.setConsultationFee(new BigDecimal("60.00"));
+        List<ScheduleDTO> schedules = new ArrayList<>();
+        for (int day = 1; day <= 5; day++) {
+            schedules.add(scheduleDto(day, LocalTime.of(8, 0), LocalTime.of(12, 0)));
+            schedules.add(scheduleDto(day, LocalTime.of(13, 0), LocalTime.of(18, 0)));
+        }
+        doctor.setSchedules(schedules);
+        doctor.setTotalAppointments(1240);
+        doctor.setCompletedAppointments(1175);
+        return doctor;
+    }
+
+    public static AppointmentDTO appointmentDto() {
+        AppointmentDTO appointment = new AppointmentDTO();
+        appointment.setId(UUID.randomUUID());
+        appointment.setPatientId(UUID.randomUUID());
+        appointment.setDoctorId(UUID.randomUUID());
+        appointment.setAppointmentDateTime(ZonedDateTime.now(ZoneOffset.UTC).plusDays(3).withNano(0));
+        appointment.setType(AppointmentType.values()[0]);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setNotes("Follow-up after stress test");
+        appointment.setDoctorName("Jane Doe-Martinez");
+        appointment.setPatientName("John Smith");
+        appointment.setDoctorSpeciality("Cardiology");
+        appointment.setPatientPhone("+33612345678");
+        return appointment;
+    }
+
+    private static Schedule schedule(int dayOfWeek, LocalTime start, LocalTime end) {
+        Schedule schedule = new Schedule();
+        schedule.setId(UUID.randomUUID());
+        schedule.setDayOfWeek(dayOfWeek);
+        schedule.setStartTime(start);
+        schedule.setEndTime(end);
+        schedule.setStatus(ScheduleStatus.ACTIVE);
+        return schedule;
+    }
+
+    private static ScheduleDTO scheduleDto(int dayOfWeek, LocalTime start, LocalTime end) {
+        ScheduleDTO schedule = new ScheduleDTO();
+        schedule.setDayOfWeek(dayOfWeek);
+        schedule.setStartTime(start);
+        schedule.setEndTime(end);
+        return schedule;
+    }
+}
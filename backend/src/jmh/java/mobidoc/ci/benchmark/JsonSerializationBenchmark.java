@@ -0,0 +1,69 @@
+package mobidoc.ci.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mobidoc.ci.dto.AppointmentDTO;
+import mobidoc.ci.dto.DoctorDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with an ObjectMapper configured like the one Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private DoctorDTO doctor;
+    private AppointmentDTO appointment;
+    private Page<AppointmentDTO> appointmentPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        doctor = BenchmarkData.doctorDto();
+        appointment = BenchmarkData.appointmentDto();
+
+        List<AppointmentDTO> appointments = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            appointments.add(BenchmarkData.appointmentDto());
+        }
+        appointmentPage = new PageImpl<>(appointments, PageRequest.of(3, 20), 1_000);
+    }
+
+    @Benchmark
+    public byte[] doctor() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(doctor);
+    }
+
+    @Benchmark
+    public byte[] appointment() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(appointment);
+    }
+
+    @Benchmark
+    public byte[] appointmentPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(appointmentPage);
+    }
+}
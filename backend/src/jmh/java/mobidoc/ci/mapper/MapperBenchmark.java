@@ -0,0 +1,78 @@
+package mobidoc.ci.mapper;
+
+import mobidoc.ci.benchmark.BenchmarkData;
+import mobidoc.ci.dto.DoctorDTO;
+import mobidoc.ci.dto.PatientDTO;
+import mobidoc.ci.dto.UserDTO;
+import mobidoc.ci.model.Doctor;
+import mobidoc.ci.model.Patient;
+import mobidoc.ci.model.User;
+import mobidoc.ci.model.enums.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping of one list row. Mappers come from a context holding only the mapper package,
+ * so they are wired exactly as in the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private UserMapper userMapper;
+    private DoctorMapper doctorMapper;
+    private PatientMapper patientMapper;
+
+    private User user;
+    private Doctor doctor;
+    private Patient patient;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext("mobidoc.ci.mapper");
+        userMapper = context.getBean(UserMapper.class);
+        doctorMapper = context.getBean(DoctorMapper.class);
+        patientMapper = context.getBean(PatientMapper.class);
+
+        user = BenchmarkData.user(UserRole.STAFF);
+        doctor = BenchmarkData.doctor();
+        patient = BenchmarkData.patient();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO userToDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public DoctorDTO doctorToDto() {
+        return doctorMapper.toDto(doctor);
+    }
+
+    @Benchmark
+    public PatientDTO patientToDto() {
+        return patientMapper.toDto(patient);
+    }
+}
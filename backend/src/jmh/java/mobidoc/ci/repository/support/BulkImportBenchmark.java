@@ -0,0 +1,163 @@
+package mobidoc.ci.repository.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import mobidoc.ci.MobiDocApplication;
+import mobidoc.ci.model.Doctor;
+import mobidoc.ci.model.Schedule;
+import mobidoc.ci.model.enums.ScheduleStatus;
+import mobidoc.ci.repository.DoctorRepository;
+import mobidoc.ci.repository.ScheduleRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 1,000-row schedule import in one transaction, written the way every bulk path did before
+ * {@link BulkWriter} ({@code save} per entity, no JDBC batching, no batched-insert rewriting) and through
+ * the writer with batching on. Runs against an embedded Postgres migrated like production. Besides
+ * wall-clock time per import, the {@code statements} and {@code inserts} counters give the JDBC round
+ * trips of one import, read from the application's {@code db.statements} meter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class BulkImportBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({"per-row", "batched"})
+    public String writePath;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext application;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private ScheduleRepository scheduleRepository;
+    private DoctorRepository doctorRepository;
+    private BulkWriter bulkWriter;
+    private MeterRegistry meterRegistry;
+    private UUID doctorId;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long statements;
+        public long inserts;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        boolean batched = writePath.equals("batched");
+        postgres = EmbeddedPostgres.builder().start();
+        application = new SpringApplicationBuilder(MobiDocApplication.class)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=postgres",
+                        "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=" + batched,
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + (batched ? 50 : 1),
+                        "spring.security.oauth2.resourceserver.jwt.issuer-uri=http://localhost:0/realms/benchmark",
+                        "storage.documents.root=" + Files.createTempDirectory("benchmark-documents"),
+                        "storage.documents.processing.enabled=false",
+                        "server.port=0",
+                        "management.server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+
+        transactionTemplate = application.getBean(TransactionTemplate.class);
+        jdbcTemplate = application.getBean(JdbcTemplate.class);
+        scheduleRepository = application.getBean(ScheduleRepository.class);
+        doctorRepository = application.getBean(DoctorRepository.class);
+        bulkWriter = application.getBean(BulkWriter.class);
+        meterRegistry = application.getBean(MeterRegistry.class);
+
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, keycloak_id, role) "
+                + "VALUES (?, 'benchmark', 'benchmark@example.com', ?, 'DOCTOR')", userId, userId.toString());
+        doctorId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO doctors (id, user_id, speciality, license_number) "
+                + "VALUES (?, ?, 'General Practice', 'BENCH-1')", doctorId, userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+        postgres.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearSchedules() {
+        jdbcTemplate.update("DELETE FROM schedules");
+    }
+
+    @Benchmark
+    public int importSchedules(RoundTrips roundTrips) {
+        long statementsBefore = statements(null);
+        long insertsBefore = statements("insert");
+
+        int imported = transactionTemplate.execute(status -> {
+            Doctor doctor = doctorRepository.getReferenceById(doctorId);
+            List<Schedule> schedules = schedules(doctor);
+            if (writePath.equals("batched")) {
+                return bulkWriter.persistAll(schedules).size();
+            }
+            schedules.forEach(scheduleRepository::save);
+            return schedules.size();
+        });
+
+        roundTrips.statements += statements(null) - statementsBefore;
+        roundTrips.inserts += statements("insert") - insertsBefore;
+        return imported;
+    }
+
+    private static List<Schedule> schedules(Doctor doctor) {
+        List<Schedule> schedules = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            LocalTime start = LocalTime.of(6, 0).plusMinutes(i / 7);
+            schedules.add(Schedule.builder()
+                    .doctor(doctor)
+                    .dayOfWeek(1 + i % 7)
+                    .startTime(start)
+                    .endTime(start.plusMinutes(30))
+                    .status(ScheduleStatus.ACTIVE)
+                    .build());
+        }
+        return schedules;
+    }
+
+    private long statements(String type) {
+        var search = meterRegistry.find("db.statements");
+        if (type != null) {
+            search = search.tag("type", type);
+        }
+        return search.timers().stream().mapToLong(Timer::count).sum();
+    }
+}
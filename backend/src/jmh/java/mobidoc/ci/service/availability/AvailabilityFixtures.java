@@ -0,0 +1,77 @@
+package mobidoc.ci.service.availability;
+
+import mobidoc.ci.model.Appointment;
+import mobidoc.ci.model.Schedule;
+import mobidoc.ci.model.enums.ScheduleStatus;
+import mobidoc.ci.repository.AppointmentRepository;
+import mobidoc.ci.repository.DoctorRepository;
+import mobidoc.ci.repository.ScheduleRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a {@link SlotAvailabilityEngine} over in-memory repository stubs, so benchmarks measure the
+ * engine itself rather than a database.
+ */
+final class AvailabilityFixtures {
+
+    private AvailabilityFixtures() {
+    }
+
+    /** Monday to Friday 08:00-12:00 and 13:00-18:00 (18 slots), Saturday 09:00-12:00 (6 slots). */
+    static List<Schedule> weekSchedules() {
+        List<Schedule> schedules = new ArrayList<>();
+        for (int day = 1; day <= 5; day++) {
+            schedules.add(schedule(day, LocalTime.of(8, 0), LocalTime.of(12, 0)));
+            schedules.add(schedule(day, LocalTime.of(13, 0), LocalTime.of(18, 0)));
+        }
+        schedules.add(schedule(6, LocalTime.of(9, 0), LocalTime.of(12, 0)));
+        return schedules;
+    }
+
+    static SlotAvailabilityEngine engine(List<Schedule> schedules, List<Appointment> appointments) {
+        ScheduleRepository scheduleRepository = stub(ScheduleRepository.class, schedules);
+        AppointmentRepository appointmentRepository = stub(AppointmentRepository.class, appointments);
+        DoctorRepository doctorRepository = stub(DoctorRepository.class, List.of());
+        SlotAvailabilityEngine engine = new SlotAvailabilityEngine(scheduleRepository, appointmentRepository,
+                doctorRepository);
+        ReflectionTestUtils.setField(engine, "zone", ZoneOffset.UTC);
+        ReflectionTestUtils.setField(engine, "cacheHorizonDays", 90);
+        ReflectionTestUtils.setField(engine, "maxDoctors", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(engine, "idleTtl", Duration.ofDays(1));
+        return engine;
+    }
+
+    private static Schedule schedule(int dayOfWeek, LocalTime start, LocalTime end) {
+        Schedule schedule = new Schedule();
+        schedule.setDayOfWeek(dayOfWeek);
+        schedule.setStartTime(start);
+        schedule.setEndTime(end);
+        schedule.setStatus(ScheduleStatus.ACTIVE);
+        return schedule;
+    }
+
+    /** List finders answer with {@code rows} and every id exists; nothing else is called by the engine. */
+    @SuppressWarnings("unchecked")
+    private static <R> R stub(Class<R> repositoryType, List<?> rows) {
+        return (R) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    if (method.getReturnType() == List.class) {
+                        return rows;
+                    }
+                    if (method.getName().equals("existsById")) {
+                        return true;
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(rows, args);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
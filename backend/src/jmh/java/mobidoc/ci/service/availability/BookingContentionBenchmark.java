@@ -0,0 +1,121 @@
+package mobidoc.ci.service.availability;
+
+import mobidoc.ci.model.Schedule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 500 concurrent clients racing for slots through {@link SlotAvailabilityEngine#reserve}: all on one doctor
+ * (worst case for the lock stripe) and spread over a few hundred doctors. Every slot is a scheduled one.
+ * Each booking that wins is confirmed and then released again, as if cancelled later, so the doctors never
+ * fill up and the score measures booking cycles rather than rejections of full calendars. The
+ * {@code rejected} counter only counts genuine races for a slot that another client held at that moment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(500)
+@Fork(1)
+public class BookingContentionBenchmark {
+
+    private static final int DAYS = 60;
+    private static final int DOCTORS = 256;
+
+    private SlotAvailabilityEngine engine;
+    private UUID[] doctorIds;
+    private ZonedDateTime[] slots;
+
+    @Setup
+    public void setUp() {
+        List<Schedule> schedules = AvailabilityFixtures.weekSchedules();
+        engine = AvailabilityFixtures.engine(schedules, List.of());
+        doctorIds = new UUID[DOCTORS];
+        for (int i = 0; i < DOCTORS; i++) {
+            doctorIds[i] = UUID.randomUUID();
+        }
+
+        // Only the slots the doctors work, so a rejection is never caused by an off-schedule slot
+        LocalDate monday = LocalDate.now(ZoneOffset.UTC).plusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<ZonedDateTime> scheduled = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = monday.plusDays(day);
+            for (Schedule schedule : schedules) {
+                if (schedule.getDayOfWeek() != date.getDayOfWeek().getValue()) {
+                    continue;
+                }
+                for (LocalTime start = schedule.getStartTime();
+                     !start.plusMinutes(SlotAvailabilityEngine.SLOT_MINUTES).isAfter(schedule.getEndTime());
+                     start = start.plusMinutes(SlotAvailabilityEngine.SLOT_MINUTES)) {
+                    scheduled.add(date.atTime(start).atZone(ZoneOffset.UTC));
+                }
+            }
+        }
+        slots = scheduled.toArray(ZonedDateTime[]::new);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        public long booked;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            booked = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetOccupancy() {
+        engine.evictAll();
+    }
+
+    @Benchmark
+    public boolean reserveHotDoctor(Outcomes outcomes) {
+        return book(doctorIds[0], slots[ThreadLocalRandom.current().nextInt(slots.length)], outcomes);
+    }
+
+    @Benchmark
+    public boolean reserveSpreadDoctors(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return book(doctorIds[random.nextInt(DOCTORS)], slots[random.nextInt(slots.length)], outcomes);
+    }
+
+    // Confirmed like a committed booking, then released like a cancelled one, so the slot is free again
+    private boolean book(UUID doctorId, ZonedDateTime slot, Outcomes outcomes) {
+        if (!engine.reserve(doctorId, slot)) {
+            outcomes.rejected++;
+            return false;
+        }
+        engine.confirmReservation(doctorId, slot);
+        engine.appointmentReleased(doctorId, slot);
+        outcomes.booked++;
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package mobidoc.ci.service.availability;
+
+import mobidoc.ci.model.Schedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slot expansion behind {@code ScheduleServiceImpl.getAvailableSlots}: building the weekly template
+ * from schedules, answering from a warm cache, and a two-week calendar read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotAvailabilityBenchmark {
+
+    private List<Schedule> schedules;
+    private SlotAvailabilityEngine engine;
+    private UUID doctorId;
+    private LocalDate monday;
+
+    @Setup
+    public void setUp() {
+        schedules = AvailabilityFixtures.weekSchedules();
+        engine = AvailabilityFixtures.engine(schedules, List.of());
+        doctorId = UUID.randomUUID();
+        monday = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        engine.getAvailableSlots(doctorId, monday);
+    }
+
+    @Benchmark
+    public int[][] buildWeeklySlotStarts() {
+        return SlotAvailabilityEngine.buildWeeklySlotStarts(schedules);
+    }
+
+    @Benchmark
+    public List<String> availableSlotsWarm() {
+        return engine.getAvailableSlots(doctorId, monday);
+    }
+
+    @Benchmark
+    public Map<LocalDate, int[]> twoWeekCalendarWarm() {
+        return engine.getAvailableSlotStarts(doctorId, monday, monday.plusDays(13));
+    }
+}
@@ -0,0 +1,193 @@
+package mobidoc.ci.loadtest;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeds doctors with weekly schedules, patients and patient documents straight through JDBC, and keeps
+ * the ids the workloads pick from. Document content is written into the application's document store
+ * root. The fixed seed makes runs comparable.
+ */
+final class LoadTestData {
+
+    private static final String[] FIRST_NAMES = {"Amélie", "Hugo", "Léa", "Lucas", "Chloé", "Nathan", "Inès",
+            "Louis", "Manon", "Jules", "Camille", "Gabriel", "Sarah", "Arthur", "Zoé", "Adam"};
+    private static final String[] LAST_NAMES = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard",
+            "Petit", "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefèvre", "Michel", "Garcia", "Fournier",
+            "Girard", "Bonnet", "Dupont", "Lambert", "Fontaine", "Rousseau", "Vincent", "Muller"};
+    private static final int DOCUMENT_SIZE = 16 * 1024;
+
+    private static final String[] SPECIALITIES = {"Cardiology", "Dermatology", "General Practice", "Neurology",
+            "Paediatrics", "Psychiatry", "Radiology", "Orthopaedics"};
+
+    final List<UUID> doctorIds = new ArrayList<>();
+    final List<UUID> patientIds = new ArrayList<>();
+    final List<UUID[]> documents = new ArrayList<>();
+    final String[] searchTerms = LAST_NAMES;
+
+    private final Random random = new Random(42);
+    private final Path documentsRoot;
+
+    private LoadTestData(Path documentsRoot) {
+        this.documentsRoot = documentsRoot;
+    }
+
+    static LoadTestData seed(DataSource dataSource, Path documentsRoot, int doctors, int patients)
+            throws SQLException, IOException {
+        LoadTestData data = new LoadTestData(documentsRoot);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            data.seedDoctors(connection, doctors);
+            data.seedPatients(connection, patients);
+            connection.commit();
+        }
+        return data;
+    }
+
+    private void seedDoctors(Connection connection, int count) throws SQLException {
+        try (PreparedStatement users = usersStatement(connection);
+             PreparedStatement profiles = profilesStatement(connection);
+             PreparedStatement doctors = connection.prepareStatement(
+                     "INSERT INTO doctors (id, user_id, speciality, license_number, experience_years, consultation_fee) "
+                             + "VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement schedules = connection.prepareStatement(
+                     "INSERT INTO schedules (id, doctor_id, day_of_week, start_time, end_time, status) "
+                             + "VALUES (?, ?, ?, ?, ?, 'ACTIVE')")) {
+            for (int i = 0; i < count; i++) {
+                UUID userId = addUser(users, profiles, "doctor" + i, "DOCTOR");
+                UUID doctorId = UUID.randomUUID();
+                doctors.setObject(1, doctorId);
+                doctors.setObject(2, userId);
+                doctors.setString(3, SPECIALITIES[i % SPECIALITIES.length]);
+                doctors.setString(4, "LT-" + i);
+                doctors.setInt(5, 1 + random.nextInt(30));
+                doctors.setBigDecimal(6, BigDecimal.valueOf(25 + random.nextInt(60)));
+                doctors.addBatch();
+                for (int day = 1; day <= 5; day++) {
+                    addSchedule(schedules, doctorId, day, LocalTime.of(8, 0), LocalTime.of(12, 0));
+                    addSchedule(schedules, doctorId, day, LocalTime.of(13, 0), LocalTime.of(18, 0));
+                }
+                doctorIds.add(doctorId);
+            }
+            users.executeBatch();
+            profiles.executeBatch();
+            doctors.executeBatch();
+            schedules.executeBatch();
+        }
+    }
+
+    private void seedPatients(Connection connection, int count) throws SQLException, IOException {
+        try (PreparedStatement users = usersStatement(connection);
+             PreparedStatement profiles = profilesStatement(connection);
+             PreparedStatement patients = connection.prepareStatement(
+                     "INSERT INTO patients (id, user_id, blood_group, medical_history, allergies) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement documentRows = connection.prepareStatement(
+                     "INSERT INTO documents (id, patient_id, type, file_name, file_url, content_type, size_bytes, checksum) "
+                             + "VALUES (?, ?, 'REPORT', ?, ?, 'application/pdf', ?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                UUID userId = addUser(users, profiles, "patient" + i, "PATIENT");
+                UUID patientId = UUID.randomUUID();
+                patients.setObject(1, patientId);
+                patients.setObject(2, userId);
+                patients.setString(3, "O+");
+                patients.setString(4, "Seasonal asthma, treated with salbutamol. Hypertension since 2019.");
+                patients.setString(5, i % 3 == 0 ? "Penicillin" : null);
+                patients.addBatch();
+                patientIds.add(patientId);
+
+                if (i % 4 == 0) {
+                    UUID documentId = UUID.randomUUID();
+                    documentRows.setObject(1, documentId);
+                    documentRows.setObject(2, patientId);
+                    documentRows.setString(3, "report-" + i + ".pdf");
+                    String checksum = writeDocument();
+                    documentRows.setString(4, checksum.substring(0, 2) + "/" + checksum.substring(2, 4) + "/" + checksum);
+                    documentRows.setLong(5, DOCUMENT_SIZE);
+                    documentRows.setString(6, checksum);
+                    documentRows.addBatch();
+                    documents.add(new UUID[]{patientId, documentId});
+                }
+                if (i % 1_000 == 999) {
+                    users.executeBatch();
+                    profiles.executeBatch();
+                    patients.executeBatch();
+                    documentRows.executeBatch();
+                }
+            }
+            users.executeBatch();
+            profiles.executeBatch();
+            patients.executeBatch();
+            documentRows.executeBatch();
+        }
+    }
+
+    // Written at its content address, as the document store would
+    private String writeDocument() throws IOException {
+        byte[] content = new byte[DOCUMENT_SIZE];
+        random.nextBytes(content);
+        String checksum;
+        try {
+            checksum = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        Path path = documentsRoot.resolve(checksum.substring(0, 2)).resolve(checksum.substring(2, 4)).resolve(checksum);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content);
+        return checksum;
+    }
+
+    private UUID addUser(PreparedStatement users, PreparedStatement profiles, String username, String role)
+            throws SQLException {
+        UUID userId = UUID.randomUUID();
+        users.setObject(1, userId);
+        users.setString(2, username);
+        users.setString(3, username + "@loadtest.example");
+        users.setString(4, userId.toString());
+        users.setString(5, role);
+        users.addBatch();
+
+        profiles.setObject(1, UUID.randomUUID());
+        profiles.setObject(2, userId);
+        profiles.setString(3, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+        profiles.setString(4, LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        profiles.setString(5, "+336" + (10_000_000 + random.nextInt(89_999_999)));
+        profiles.addBatch();
+        return userId;
+    }
+
+    private static void addSchedule(PreparedStatement schedules, UUID doctorId, int day, LocalTime start, LocalTime end)
+            throws SQLException {
+        schedules.setObject(1, UUID.randomUUID());
+        schedules.setObject(2, doctorId);
+        schedules.setInt(3, day);
+        schedules.setTime(4, Time.valueOf(start));
+        schedules.setTime(5, Time.valueOf(end));
+        schedules.addBatch();
+    }
+
+    private static PreparedStatement usersStatement(Connection connection) throws SQLException {
+        return connection.prepareStatement(
+                "INSERT INTO users (id, username, email, keycloak_id, role, status) VALUES (?, ?, ?, ?, ?, 'ACTIVE')");
+    }
+
+    private static PreparedStatement profilesStatement(Connection connection) throws SQLException {
+        return connection.prepareStatement(
+                "INSERT INTO user_profiles (id, user_id, first_name, last_name, phone) VALUES (?, ?, ?, ?, ?)");
+    }
+}
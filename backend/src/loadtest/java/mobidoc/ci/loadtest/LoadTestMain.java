@@ -0,0 +1,221 @@
+package mobidoc.ci.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import mobidoc.ci.MobiDocApplication;
+import mobidoc.ci.model.enums.AppointmentType;
+import mobidoc.ci.model.enums.UserRole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Boots the application against an ephemeral Postgres and a local JWK stub, seeds it, drives a mixed
+ * workload at a fixed arrival rate and reports per-endpoint throughput, latency percentiles and error rates.
+ * <p>
+ * Tunables (system properties): {@code loadtest.rps}, {@code loadtest.warmup-seconds},
+ * {@code loadtest.duration-seconds}, {@code loadtest.doctors}, {@code loadtest.patients},
+ * {@code loadtest.max-error-rate}, {@code loadtest.report}, and {@code loadtest.threads}: {@code platform},
+ * {@code virtual} or {@code compare}, which runs the same workload in both modes and prints them side by side.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rps = Integer.getInteger("loadtest.rps", 200);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 15));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 60));
+        int doctors = Integer.getInteger("loadtest.doctors", 200);
+        int patients = Integer.getInteger("loadtest.patients", 20_000);
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+        Path report = Path.of(System.getProperty("loadtest.report", "target/loadtest-report.csv"));
+        String threads = System.getProperty("loadtest.threads", "platform");
+        List<String> modes = switch (threads) {
+            case "platform", "virtual" -> List.of(threads);
+            case "compare" -> List.of("platform", "virtual");
+            default -> throw new IllegalArgumentException("loadtest.threads must be platform, virtual or compare");
+        };
+
+        // Each mode gets a fresh database and seed, so neither run inherits the other's bookings
+        Map<String, Map<String, EndpointStats>> runs = new LinkedHashMap<>();
+        for (String mode : modes) {
+            System.out.printf("Driving %d req/s for %s after %s warm-up on %s threads%n", rps, duration, warmup, mode);
+            runs.put(mode, run(mode, rps, warmup, duration, doctors, patients));
+        }
+
+        for (Map.Entry<String, Map<String, EndpointStats>> run : runs.entrySet()) {
+            System.out.printf("%n%s threads%n", run.getKey());
+            print(run.getValue(), duration, System.out);
+        }
+        if (runs.size() > 1) {
+            printComparison(runs.get("platform"), runs.get("virtual"), duration, System.out);
+        }
+        writeCsv(runs, duration, report);
+
+        boolean failed = false;
+        for (Map.Entry<String, Map<String, EndpointStats>> run : runs.entrySet()) {
+            long total = run.getValue().values().stream().mapToLong(EndpointStats::count).sum();
+            long errors = run.getValue().values().stream().mapToLong(EndpointStats::errors).sum();
+            if (total == 0 || (double) errors / total > maxErrorRate) {
+                System.err.printf("Error rate %.2f%% on %s threads exceeds %.2f%%%n",
+                        100.0 * errors / Math.max(total, 1), run.getKey(), 100 * maxErrorRate);
+                failed = true;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, EndpointStats> run(String mode, int rps, Duration warmup, Duration duration,
+                                                  int doctors, int patients) throws Exception {
+        Path documentsRoot = Files.createTempDirectory("loadtest-documents");
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             JwkStub jwkStub = JwkStub.start();
+             ConfigurableApplicationContext application = startApplication(postgres, jwkStub, documentsRoot,
+                     mode.equals("virtual"))) {
+            DataSource dataSource = application.getBean(DataSource.class);
+            LoadTestData data = LoadTestData.seed(dataSource, documentsRoot, doctors, patients);
+
+            String baseUrl = "http://127.0.0.1:" + application.getEnvironment().getProperty("local.server.port")
+                    + application.getEnvironment().getProperty("server.servlet.context-path", "");
+            List<Workload> workloads = workloads(baseUrl, data, jwkStub);
+            HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            return new WorkloadDriver(httpClient, workloads).run(rps, warmup, duration);
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres, JwkStub jwkStub,
+                                                                   Path documentsRoot, boolean virtualThreads) {
+        return new SpringApplicationBuilder(MobiDocApplication.class)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=postgres",
+                        "spring.security.oauth2.resourceserver.jwt.issuer-uri=" + jwkStub.issuerUri(),
+                        "spring.security.oauth2.resourceserver.jwt.jwk-set-uri=" + jwkStub.jwkSetUri(),
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "storage.documents.root=" + documentsRoot,
+                        "storage.uploads.root=" + documentsRoot.resolve(".uploads"),
+                        // Seeded documents are random bytes; rendering them would only compete with the measured mix
+                        "storage.documents.processing.enabled=false",
+                        "server.port=0",
+                        "management.server.port=0",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run();
+    }
+
+    private static List<Workload> workloads(String baseUrl, LoadTestData data, JwkStub jwkStub) {
+        Duration validity = Duration.ofHours(12);
+        String patientToken = jwkStub.token(UserRole.PATIENT, UUID.randomUUID().toString(), validity);
+        String staffToken = jwkStub.token(UserRole.STAFF, UUID.randomUUID().toString(), validity);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        String appointmentType = AppointmentType.values()[0].name();
+
+        return List.of(
+                new Workload("GET /api/doctors/{id}/available-slots", 50, random -> WorkloadDriver.request(
+                        baseUrl + "/api/doctors/" + pick(data.doctorIds, random) + "/available-slots?date="
+                                + today.plusDays(random.nextInt(14)), patientToken).GET().build()),
+                new Workload("GET /api/patients/search", 25, random -> {
+                    String name = data.searchTerms[random.nextInt(data.searchTerms.length)];
+                    String term = name.substring(0, Math.min(name.length(), 3 + random.nextInt(3)));
+                    return WorkloadDriver.request(baseUrl + "/api/patients/search?searchTerm="
+                            + URLEncoder.encode(term, StandardCharsets.UTF_8), staffToken).GET().build();
+                }),
+                new Workload("POST /api/appointments", 10, random -> {
+                    // Weekday office slots over the next four weeks, so concurrent bookings do collide
+                    LocalDate date = today.plusDays(1 + random.nextInt(28));
+                    while (date.getDayOfWeek().getValue() > 5) {
+                        date = date.plusDays(1);
+                    }
+                    ZonedDateTime slot = date.atTime(LocalTime.of(8, 0).plusMinutes(30L * random.nextInt(8)))
+                            .atZone(ZoneOffset.UTC);
+                    String body = "{\"patientId\":\"" + pick(data.patientIds, random) + "\",\"doctorId\":\""
+                            + pick(data.doctorIds, random) + "\",\"appointmentDateTime\":\"" + slot
+                            + "\",\"type\":\"" + appointmentType + "\"}";
+                    return WorkloadDriver.request(baseUrl + "/api/appointments", staffToken)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                }, 409),
+                new Workload("GET /api/patients/{id}/documents/{documentId}", 15, random -> {
+                    UUID[] document = pick(data.documents, random);
+                    return WorkloadDriver.request(baseUrl + "/api/patients/" + document[0] + "/documents/" + document[1],
+                            staffToken).GET().build();
+                }));
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static void print(Map<String, EndpointStats> results, Duration duration, PrintStream out) {
+        out.printf("%-50s %8s %9s %9s %9s %9s %9s %8s %8s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors", "rejected");
+        for (EndpointStats stats : results.values()) {
+            out.printf("%-50s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7.2f%% %7.2f%%%n",
+                    stats.name, stats.count(), (double) stats.count() / duration.toSeconds(),
+                    stats.percentileMillis(50), stats.percentileMillis(99), stats.percentileMillis(99.9),
+                    stats.maxMillis(), percent(stats.errors(), stats.count()), percent(stats.rejected(), stats.count()));
+        }
+    }
+
+    private static void printComparison(Map<String, EndpointStats> platform, Map<String, EndpointStats> virtual,
+                                        Duration duration, PrintStream out) {
+        out.printf("%nplatform vs virtual threads%n");
+        out.printf("%-50s %19s %19s %19s %19s%n", "endpoint", "req/s", "p99 ms", "p999 ms", "errors");
+        for (EndpointStats before : platform.values()) {
+            EndpointStats after = virtual.get(before.name);
+            if (after == null) {
+                continue;
+            }
+            out.printf("%-50s %9.1f %9.1f %9.2f %9.2f %9.2f %9.2f %8.2f%% %8.2f%%%n", before.name,
+                    (double) before.count() / duration.toSeconds(), (double) after.count() / duration.toSeconds(),
+                    before.percentileMillis(99), after.percentileMillis(99),
+                    before.percentileMillis(99.9), after.percentileMillis(99.9),
+                    percent(before.errors(), before.count()), percent(after.errors(), after.count()));
+        }
+    }
+
+    private static void writeCsv(Map<String, Map<String, EndpointStats>> runs, Duration duration, Path report)
+            throws IOException {
+        StringBuilder csv = new StringBuilder(
+                "threads,endpoint,count,throughput_rps,p50_ms,p99_ms,p999_ms,max_ms,error_rate,rejected_rate\n");
+        for (Map.Entry<String, Map<String, EndpointStats>> run : runs.entrySet()) {
+            for (EndpointStats stats : run.getValue().values()) {
+                csv.append(String.format("%s,\"%s\",%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.4f,%.4f%n",
+                        run.getKey(), stats.name, stats.count(), (double) stats.count() / duration.toSeconds(),
+                        stats.percentileMillis(50), stats.percentileMillis(99), stats.percentileMillis(99.9),
+                        stats.maxMillis(), percent(stats.errors(), stats.count()) / 100,
+                        percent(stats.rejected(), stats.count()) / 100));
+            }
+        }
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, csv);
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+}
@@ -0,0 +1,22 @@
+package mobidoc.ci.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * One request type of the mix: its share of the traffic and how to build the next request.
+ * The name is the route template, so results line up with the server-side metrics.
+ */
+record Workload(String name, int weight, Function<ThreadLocalRandom, HttpRequest> nextRequest,
+                int... rejectedStatuses) {
+
+    boolean isRejection(int status) {
+        for (int rejected : rejectedStatuses) {
+            if (rejected == status) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,99 @@
+package mobidoc.ci.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests are sent on a fixed schedule at the target rate whether or not
+ * earlier ones have completed, the way independent users arrive. Requests scheduled during warm-up are
+ * sent but not recorded.
+ */
+final class WorkloadDriver {
+
+    private final HttpClient httpClient;
+    private final List<Workload> workloads;
+    private final int totalWeight;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    WorkloadDriver(HttpClient httpClient, List<Workload> workloads) {
+        this.httpClient = httpClient;
+        this.workloads = workloads;
+        this.totalWeight = workloads.stream().mapToInt(Workload::weight).sum();
+        workloads.forEach(workload -> stats.put(workload.name(), new EndpointStats(workload.name())));
+    }
+
+    Map<String, EndpointStats> run(int requestsPerSecond, Duration warmup, Duration duration) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        long start = System.nanoTime();
+        long recordFrom = start + warmup.toNanos();
+        long end = recordFrom + duration.toNanos();
+        Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Workload workload = pick(random);
+            EndpointStats endpoint = intended >= recordFrom ? stats.get(workload.name()) : null;
+            long intendedStart = intended;
+            CompletableFuture<?> response = httpClient.sendAsync(workload.nextRequest().apply(random),
+                            HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((result, failure) -> {
+                        if (endpoint != null) {
+                            endpoint.record(System.nanoTime() - intendedStart, outcome(workload, result, failure));
+                        }
+                    });
+            // Each response drops itself once done, so the set only holds requests still in flight
+            inFlight.add(response);
+            response.whenComplete((result, failure) -> inFlight.remove(response));
+        }
+
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // Stragglers and failed requests are already recorded as errors or latency
+        }
+        return stats;
+    }
+
+    private Workload pick(ThreadLocalRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Workload workload : workloads) {
+            ticket -= workload.weight();
+            if (ticket < 0) {
+                return workload;
+            }
+        }
+        throw new IllegalStateException("Workload weights changed during the run");
+    }
+
+    private static EndpointStats.Outcome outcome(Workload workload, HttpResponse<?> response, Throwable failure) {
+        if (failure != null) {
+            return EndpointStats.Outcome.ERROR;
+        }
+        if (response.statusCode() < 400) {
+            return EndpointStats.Outcome.OK;
+        }
+        return workload.isRejection(response.statusCode()) ? EndpointStats.Outcome.REJECTED : EndpointStats.Outcome.ERROR;
+    }
+
+    static HttpRequest.Builder request(String uri, String token) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+}
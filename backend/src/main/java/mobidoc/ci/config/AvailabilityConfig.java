@@ -0,0 +1,31 @@
+package mobidoc.ci.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class AvailabilityConfig {
+
+    /**
+     * Fan-out pool for cross-doctor availability searches. Cold lookups hit the database,
+     * so it is kept smaller than the Hikari pool. A fixed pool rather than a virtual thread per lookup:
+     * its size is what bounds the connections one broad search can take from the database bulkhead.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService availabilitySearchExecutor(
+            @Value("${scheduling.availability.search-threads:4}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "availability-search-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, threadFactory);
+    }
+}
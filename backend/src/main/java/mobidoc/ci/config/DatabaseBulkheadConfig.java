@@ -0,0 +1,41 @@
+package mobidoc.ci.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DatabaseBulkheadConfig {
+
+    /**
+     * Platform threads are bounded by Tomcat's pool; virtual threads are not, so in that mode the pool
+     * gets a bulkhead in front of it.
+     */
+    @Bean
+    static BeanPostProcessor databaseBulkheadDataSourceWrapper(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${database.bulkhead.max-concurrent:10}") int maxConcurrent,
+            @Value("${database.bulkhead.max-waiting:500}") int maxWaiting,
+            @Value("${database.bulkhead.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                return new BulkheadDataSource(dataSource, maxConcurrent, maxWaiting, acquireTimeout,
+                        meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package mobidoc.ci.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class DocumentProcessingConfig {
+
+    /**
+     * Workers for document post-processing. Rendering is CPU and memory heavy, so the pool is small
+     * and jobs are only claimed from the queue table when a worker is free.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService documentProcessingExecutor(
+            @Value("${storage.documents.processing.workers:2}") int workers) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "document-processing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(workers, threadFactory);
+    }
+}
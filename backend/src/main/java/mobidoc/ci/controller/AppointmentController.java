@@ -5,8 +5,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import mobidoc.ci.dto.AppointmentDTO;
+import mobidoc.ci.dto.CursorPageDTO;
 import mobidoc.ci.model.enums.AppointmentStatus;
+import mobidoc.ci.service.AppointmentListingService;
 import mobidoc.ci.service.AppointmentService;
+import mobidoc.ci.service.BookingService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -26,12 +29,14 @@ import java.util.UUID;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final BookingService bookingService;
+    private final AppointmentListingService appointmentListingService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'PATIENT')")
     @Operation(summary = "Schedule a new appointment")
     public ResponseEntity<AppointmentDTO> createAppointment(@Valid @RequestBody AppointmentDTO appointmentDTO) {
-        return new ResponseEntity<>(appointmentService.createAppointment(appointmentDTO), HttpStatus.CREATED);
+        return new ResponseEntity<>(bookingService.bookAppointment(appointmentDTO), HttpStatus.CREATED);
     }
 
     @GetMapping("/{id}")
@@ -59,6 +64,26 @@ public class AppointmentController {
         return ResponseEntity.ok(appointmentService.getPatientAppointments(patientId, pageable));
     }
 
+    @GetMapping("/doctors/{doctorId}/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF') or @userSecurity.isCurrentDoctor(#doctorId)")
+    @Operation(summary = "Get doctor's appointments, newest first, by continuation cursor")
+    public ResponseEntity<CursorPageDTO<AppointmentDTO>> getDoctorAppointmentsByCursor(
+            @PathVariable UUID doctorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(appointmentListingService.getDoctorAppointments(doctorId, cursor, size));
+    }
+
+    @GetMapping("/patients/{patientId}/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF') or @userSecurity.isCurrentPatient(#patientId)")
+    @Operation(summary = "Get patient's appointments, newest first, by continuation cursor")
+    public ResponseEntity<CursorPageDTO<AppointmentDTO>> getPatientAppointmentsByCursor(
+            @PathVariable UUID patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(appointmentListingService.getPatientAppointments(patientId, cursor, size));
+    }
+
     @GetMapping("/doctors/{doctorId}/date/{date}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF') or @userSecurity.isCurrentDoctor(#doctorId)")
     @Operation(summary = "Get doctor's appointments for a specific date")
@@ -110,7 +135,7 @@ public class AppointmentController {
     public ResponseEntity<AppointmentDTO> rescheduleAppointment(
             @PathVariable UUID id,
             @Valid @RequestBody AppointmentDTO appointmentDTO) {
-        return ResponseEntity.ok(appointmentService.rescheduleAppointment(id, appointmentDTO));
+        return ResponseEntity.ok(bookingService.rescheduleAppointment(id, appointmentDTO));
     }
 
     @DeleteMapping("/{id}")
@@ -125,6 +150,6 @@ public class AppointmentController {
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Check for appointment conflicts")
     public ResponseEntity<Boolean> checkForConflicts(@Valid @RequestBody AppointmentDTO appointmentDTO) {
-        return ResponseEntity.ok(appointmentService.hasConflicts(appointmentDTO));
+        return ResponseEntity.ok(bookingService.hasConflicts(appointmentDTO));
     }
 }
\ No newline at end of file
@@ -3,8 +3,12 @@ package mobidoc.ci.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import mobidoc.ci.dto.DoctorDTO;
+import mobidoc.ci.dto.DoctorSummaryDTO;
+import mobidoc.ci.dto.EarliestAvailabilityDTO;
 import mobidoc.ci.dto.ScheduleDTO;
 import mobidoc.ci.service.DoctorService;
 import org.springframework.data.domain.Page;
@@ -53,6 +57,12 @@ public class DoctorController {
         return ResponseEntity.ok(doctorService.getAllDoctors(pageable));
     }
 
+    @GetMapping("/summaries")
+    @Operation(summary = "Get a lightweight page of doctors for list views")
+    public ResponseEntity<Page<DoctorSummaryDTO>> getDoctorSummaries(Pageable pageable) {
+        return ResponseEntity.ok(doctorService.getDoctorSummaries(pageable));
+    }
+
     @GetMapping("/speciality/{speciality}")
     @Operation(summary = "Get doctors by speciality")
     public ResponseEntity<Page<DoctorDTO>> getDoctorsBySpeciality(
@@ -61,6 +71,15 @@ public class DoctorController {
         return ResponseEntity.ok(doctorService.getDoctorsBySpeciality(speciality, pageable));
     }
 
+    @GetMapping("/speciality/{speciality}/next-available")
+    @Operation(summary = "Get the doctors of a speciality with the earliest free slots")
+    public ResponseEntity<EarliestAvailabilityDTO> getEarliestAvailableBySpeciality(
+            @PathVariable String speciality,
+            @RequestParam(defaultValue = "5") @Min(1) @Max(50) int limit,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(2000) long budgetMillis) {
+        return ResponseEntity.ok(doctorService.findEarliestAvailableBySpeciality(speciality, limit, budgetMillis));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete a doctor")
@@ -113,11 +132,6 @@ public class DoctorController {
     @GetMapping("/{id}/stats")
     @Operation(summary = "Get doctor's statistics")
     public ResponseEntity<DoctorDTO> getDoctorStats(@PathVariable UUID id) {
-        DoctorDTO stats = DoctorDTO.builder()
-                .id(id)
-                .completedAppointments(doctorService.getCompletedAppointmentsCount(id))
-                .averageRating(doctorService.getAverageRating(id))
-                .build();
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(doctorService.getDoctorStatistics(id));
     }
 }
\ No newline at end of file
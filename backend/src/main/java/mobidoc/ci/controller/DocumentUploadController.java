@@ -0,0 +1,75 @@
+package mobidoc.ci.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import mobidoc.ci.dto.DocumentDTO;
+import mobidoc.ci.dto.UploadSessionDTO;
+import mobidoc.ci.service.DocumentUploadService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/patients/{patientId}/uploads")
+@RequiredArgsConstructor
+@Tag(name = "Document Uploads", description = "Resumable, chunked patient document uploads")
+public class DocumentUploadController {
+
+    private final DocumentUploadService documentUploadService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'STAFF')")
+    @Operation(summary = "Start a resumable upload", description = "Declares the file size and its SHA-256")
+    public ResponseEntity<UploadSessionDTO> createUpload(
+            @PathVariable UUID patientId,
+            @Valid @RequestBody UploadSessionDTO uploadDTO) {
+        return new ResponseEntity<>(documentUploadService.createUpload(patientId, uploadDTO), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{uploadId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'STAFF')")
+    @Operation(summary = "Get upload progress", description = "receivedBytes is the offset of the next chunk")
+    public ResponseEntity<UploadSessionDTO> getUpload(@PathVariable UUID patientId, @PathVariable UUID uploadId) {
+        return ResponseEntity.ok(documentUploadService.getUpload(patientId, uploadId));
+    }
+
+    @PutMapping(value = "/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'STAFF')")
+    @Operation(summary = "Upload a chunk",
+            description = "The raw body is appended at Upload-Offset, which must equal the bytes received so far")
+    public ResponseEntity<UploadSessionDTO> uploadChunk(
+            @PathVariable UUID patientId,
+            @PathVariable UUID uploadId,
+            @RequestHeader("Upload-Offset") long offset,
+            HttpServletRequest request) throws IOException {
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED).build();
+        }
+        return ResponseEntity.ok(documentUploadService.writeChunk(patientId, uploadId, offset, length,
+                request.getInputStream()));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'STAFF')")
+    @Operation(summary = "Verify the checksum and turn the upload into a patient document")
+    public ResponseEntity<DocumentDTO> completeUpload(@PathVariable UUID patientId, @PathVariable UUID uploadId) {
+        return new ResponseEntity<>(documentUploadService.completeUpload(patientId, uploadId), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{uploadId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'STAFF')")
+    @Operation(summary = "Abort an upload")
+    public ResponseEntity<Void> abortUpload(@PathVariable UUID patientId, @PathVariable UUID uploadId) {
+        documentUploadService.abortUpload(patientId, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
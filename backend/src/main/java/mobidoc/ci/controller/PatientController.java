@@ -4,18 +4,34 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import mobidoc.ci.dto.CursorPageDTO;
+import mobidoc.ci.dto.DocumentDTO;
 import mobidoc.ci.dto.MedicalRecordDTO;
+import mobidoc.ci.dto.MedicalTextMatchDTO;
 import mobidoc.ci.dto.PatientDTO;
+import mobidoc.ci.dto.PatientSummaryDTO;
+import mobidoc.ci.model.enums.RenditionKind;
 import mobidoc.ci.service.PatientService;
+import mobidoc.ci.service.storage.DocumentContent;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -55,6 +71,22 @@ public class PatientController {
         return ResponseEntity.ok(patientService.getAllPatients(pageable));
     }
 
+    @GetMapping("/summaries")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Get a lightweight page of patients for list views")
+    public ResponseEntity<Page<PatientSummaryDTO>> getPatientSummaries(Pageable pageable) {
+        return ResponseEntity.ok(patientService.getPatientSummaries(pageable));
+    }
+
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Get all patients, newest first, by continuation cursor")
+    public ResponseEntity<CursorPageDTO<PatientDTO>> getAllPatientsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(patientService.getAllPatients(cursor, size));
+    }
+
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'STAFF')")
     @Operation(summary = "Search patients")
@@ -64,6 +96,15 @@ public class PatientController {
         return ResponseEntity.ok(patientService.searchPatients(searchTerm, pageable));
     }
 
+    @GetMapping("/search/medical")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    @Operation(summary = "Full-text search over medical history, allergies and medical records")
+    public ResponseEntity<Slice<MedicalTextMatchDTO>> searchMedicalText(
+            @RequestParam String query,
+            Pageable pageable) {
+        return ResponseEntity.ok(patientService.searchMedicalText(query, pageable));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete a patient")
@@ -88,6 +129,15 @@ public class PatientController {
         return ResponseEntity.ok(patientService.addMedicalRecord(id, recordDTO));
     }
 
+    @PostMapping("/{id}/medical-records/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    @Operation(summary = "Import several medical records at once")
+    public ResponseEntity<List<MedicalRecordDTO>> addMedicalRecords(
+            @PathVariable UUID id,
+            @Valid @RequestBody List<MedicalRecordDTO> recordDTOs) {
+        return ResponseEntity.ok(patientService.addMedicalRecords(id, recordDTOs));
+    }
+
     @DeleteMapping("/{id}/medical-records/{recordId}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete medical record")
@@ -117,24 +167,76 @@ public class PatientController {
     @PostMapping(value = "/{id}/documents", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'STAFF')")
     @Operation(summary = "Upload patient document")
-    public ResponseEntity<Void> uploadDocument(
+    public ResponseEntity<DocumentDTO> uploadDocument(
             @PathVariable UUID id,
             @RequestParam("type") String documentType,
-            @RequestParam("file") MultipartFile file) {
-        try {
-            patientService.addDocument(id, documentType, file.getBytes());
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            @RequestParam("file") MultipartFile file) throws IOException {
+        String fileName = StringUtils.hasText(file.getOriginalFilename())
+                ? StringUtils.getFilename(file.getOriginalFilename())
+                : "document";
+        try (InputStream content = file.getInputStream()) {
+            return new ResponseEntity<>(patientService.addDocument(id, documentType, fileName, file.getContentType(),
+                    content), HttpStatus.CREATED);
         }
     }
 
+    @DeleteMapping("/{id}/documents/{documentId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'STAFF')")
+    @Operation(summary = "Delete patient document")
+    public ResponseEntity<Void> deleteDocument(@PathVariable UUID id, @PathVariable UUID documentId) {
+        patientService.deleteDocument(id, documentId);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}/documents/{documentId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'STAFF') or @userSecurity.isCurrentPatient(#id)")
-    @Operation(summary = "Get patient document")
-    public ResponseEntity<byte[]> getDocument(
+    @Operation(summary = "Get patient document",
+            description = "Streams the stored file; supports Range requests and If-None-Match against the ETag")
+    public ResponseEntity<Resource> getDocument(
             @PathVariable UUID id,
             @PathVariable UUID documentId) {
-        return ResponseEntity.ok(patientService.getDocument(documentId));
+        DocumentContent document = patientService.getDocument(id, documentId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(document.contentType() != null
+                        ? MediaType.parseMediaType(document.contentType())
+                        : MediaType.APPLICATION_OCTET_STREAM)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(document.fileName(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString());
+        if (document.checksum() != null) {
+            response.eTag(document.checksum());
+        }
+        return response.body(document.resource());
+    }
+
+    @GetMapping("/{id}/documents")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'STAFF') or @userSecurity.isCurrentPatient(#id)")
+    @Operation(summary = "Get patient documents",
+            description = "Metadata only; show previews from the preview endpoint and fetch full content on demand")
+    public ResponseEntity<List<DocumentDTO>> getPatientDocuments(@PathVariable UUID id) {
+        return ResponseEntity.ok(patientService.getPatientDocuments(id));
+    }
+
+    @GetMapping("/{id}/documents/{documentId}/preview")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'STAFF') or @userSecurity.isCurrentPatient(#id)")
+    @Operation(summary = "Get patient document preview",
+            description = "JPEG rendition of an image or the first page of a PDF. 404 until processing has produced "
+                    + "one, and for images already small enough to be shown as they are")
+    public ResponseEntity<Resource> getDocumentPreview(
+            @PathVariable UUID id,
+            @PathVariable UUID documentId,
+            @RequestParam(defaultValue = "THUMBNAIL") RenditionKind size) {
+        DocumentContent preview = patientService.getDocumentPreview(id, documentId, size);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(preview.contentType()))
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePrivate())
+                .eTag(preview.checksum())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(preview.fileName(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .body(preview.resource());
     }
-}
\ No newline at end of file
+}
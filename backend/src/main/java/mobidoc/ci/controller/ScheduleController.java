@@ -4,7 +4,10 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import mobidoc.ci.dto.AvailabilityCalendarDTO;
+import mobidoc.ci.dto.ScheduleConflictDTO;
 import mobidoc.ci.dto.ScheduleDTO;
+import mobidoc.ci.dto.WeeklyScheduleUpdateDTO;
 import mobidoc.ci.model.enums.ScheduleStatus;
 import mobidoc.ci.service.ScheduleService;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -108,6 +111,15 @@ public class ScheduleController {
         return ResponseEntity.ok(scheduleService.getAvailableSlots(doctorId, date));
     }
 
+    @GetMapping("/doctors/{doctorId}/calendar")
+    @Operation(summary = "Get available slots for every day of a date range")
+    public ResponseEntity<AvailabilityCalendarDTO> getAvailabilityCalendar(
+            @PathVariable UUID doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(scheduleService.getAvailabilityCalendar(doctorId, from, to));
+    }
+
     @PostMapping("/doctors/{doctorId}/weekly")
     @PreAuthorize("hasRole('ADMIN') or @userSecurity.isCurrentDoctor(#doctorId)")
     @Operation(summary = "Create weekly schedule for a doctor")
@@ -118,13 +130,21 @@ public class ScheduleController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/doctors/{doctorId}/weekly/validate")
+    @PreAuthorize("hasRole('ADMIN') or @userSecurity.isCurrentDoctor(#doctorId)")
+    @Operation(summary = "List every overlap a weekly schedule would introduce")
+    public ResponseEntity<List<ScheduleConflictDTO>> validateWeeklySchedule(
+            @PathVariable UUID doctorId,
+            @Valid @RequestBody List<ScheduleDTO> weeklySchedule) {
+        return ResponseEntity.ok(scheduleService.validateWeeklySchedule(doctorId, weeklySchedule));
+    }
+
     @PutMapping("/doctors/{doctorId}/weekly")
     @PreAuthorize("hasRole('ADMIN') or @userSecurity.isCurrentDoctor(#doctorId)")
     @Operation(summary = "Update weekly schedule for a doctor")
-    public ResponseEntity<Void> updateWeeklySchedule(
+    public ResponseEntity<WeeklyScheduleUpdateDTO> updateWeeklySchedule(
             @PathVariable UUID doctorId,
             @Valid @RequestBody List<ScheduleDTO> weeklySchedule) {
-        scheduleService.updateWeeklySchedule(doctorId, weeklySchedule);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(scheduleService.updateWeeklySchedule(doctorId, weeklySchedule));
     }
 }
\ No newline at end of file
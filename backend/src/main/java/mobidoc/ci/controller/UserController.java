@@ -4,8 +4,10 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import mobidoc.ci.dto.UserCountDTO;
 import mobidoc.ci.dto.UserDTO;
 import mobidoc.ci.model.enums.UserRole;
+import mobidoc.ci.model.enums.UserStatus;
 import mobidoc.ci.service.UserService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -59,6 +62,23 @@ public class UserController {
         return ResponseEntity.ok(userService.getUsersByRole(role, pageable));
     }
 
+    @GetMapping("/role/{role}/status/{status}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get users by role and status")
+    public ResponseEntity<Page<UserDTO>> getUsersByRoleAndStatus(
+            @PathVariable UserRole role,
+            @PathVariable UserStatus status,
+            Pageable pageable) {
+        return ResponseEntity.ok(userService.getUsersByRoleAndStatus(role, status, pageable));
+    }
+
+    @GetMapping("/counts")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Count users per role and status")
+    public ResponseEntity<List<UserCountDTO>> getUserCounts() {
+        return ResponseEntity.ok(userService.getUserCounts());
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete a user")
@@ -0,0 +1,17 @@
+package mobidoc.ci.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class AvailabilityCalendarDTO {
+    private UUID doctorId;
+    private LocalDate from;
+    private LocalDate to;
+    private int slotMinutes;
+    
+    private List<DayAvailabilityDTO> days;
+}
@@ -0,0 +1,16 @@
+package mobidoc.ci.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableSlotDTO {
+    private UUID doctorId;
+    private ZonedDateTime startDateTime;
+}
@@ -0,0 +1,17 @@
+package mobidoc.ci.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    
+    // Opaque token for the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,17 @@
+package mobidoc.ci.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DayAvailabilityDTO {
+    private LocalDate date;
+    
+    // Free slot start times as minutes since midnight, e.g. 510 = 08:30
+    private int[] slots;
+}
@@ -0,0 +1,20 @@
+package mobidoc.ci.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorSummaryDTO {
+    private UUID id;
+    private String firstName;
+    private String lastName;
+    private String speciality;
+    private Integer experienceYears;
+    private BigDecimal consultationFee;
+}
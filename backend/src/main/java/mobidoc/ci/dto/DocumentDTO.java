@@ -0,0 +1,25 @@
+package mobidoc.ci.dto;
+
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Data
+public class DocumentDTO {
+    private UUID id;
+    private UUID patientId;
+    private String type;
+    private String fileName;
+    private String contentType;
+    private Long sizeBytes;
+    private String checksum;
+    private String status;
+    private String processingStatus;
+    private Integer pageCount;
+    private Integer width;
+    private Integer height;
+    private String title;
+    private String author;
+    private ZonedDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package mobidoc.ci.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class EarliestAvailabilityDTO {
+    private String speciality;
+    
+    private List<AvailableSlotDTO> slots;
+    
+    // Set when some doctors were not checked, because the latency budget ran out or their lookup failed
+    private boolean partial;
+    private int doctorsSearched;
+    private int doctorsTotal;
+}
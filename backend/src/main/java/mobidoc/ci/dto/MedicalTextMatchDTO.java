@@ -0,0 +1,19 @@
+package mobidoc.ci.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MedicalTextMatchDTO {
+    private UUID patientId;
+    private UUID medicalRecordId;
+    private float rank;
+    
+    // Matched terms are wrapped in <mark> tags
+    private String snippet;
+}
@@ -0,0 +1,28 @@
+package mobidoc.ci.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleConflictDTO {
+    private Integer dayOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    
+    // The schedule it overlaps; conflictingScheduleId is null when both come from the same request
+    private UUID conflictingScheduleId;
+    private LocalTime conflictingStartTime;
+    private LocalTime conflictingEndTime;
+    
+    @Override
+    public String toString() {
+        return "day " + dayOfWeek + " " + startTime + "-" + endTime
+                + " overlaps " + conflictingStartTime + "-" + conflictingEndTime;
+    }
+}
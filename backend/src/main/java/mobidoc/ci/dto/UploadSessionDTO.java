@@ -0,0 +1,35 @@
+package mobidoc.ci.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Data
+public class UploadSessionDTO {
+    private UUID id;
+    private UUID patientId;
+
+    @NotBlank
+    private String type;
+
+    @NotBlank
+    private String fileName;
+
+    private String contentType;
+
+    @Positive
+    private long sizeBytes;
+
+    // Hex SHA-256 of the whole file, verified when the upload is completed
+    @NotBlank
+    @Pattern(regexp = "[0-9a-fA-F]{64}")
+    private String checksum;
+
+    // Response fields
+    private long receivedBytes;
+    private ZonedDateTime expiresAt;
+}
@@ -0,0 +1,16 @@
+package mobidoc.ci.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import mobidoc.ci.model.enums.UserRole;
+import mobidoc.ci.model.enums.UserStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCountDTO {
+    private UserRole role;
+    private UserStatus status;
+    private long count;
+}
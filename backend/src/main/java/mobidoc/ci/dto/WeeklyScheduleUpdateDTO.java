@@ -0,0 +1,15 @@
+package mobidoc.ci.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeeklyScheduleUpdateDTO {
+    private int unchanged;
+    private int updated;
+    private int inserted;
+    private int deleted;
+}
@@ -0,0 +1,12 @@
+package mobidoc.ci.mapper;
+
+import mobidoc.ci.dto.DocumentDTO;
+import mobidoc.ci.model.Document;
+import org.mapstruct.*;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface DocumentMapper {
+
+    @Mapping(target = "patientId", source = "patient.id")
+    DocumentDTO toDto(Document document);
+}
@@ -0,0 +1,12 @@
+package mobidoc.ci.mapper;
+
+import mobidoc.ci.dto.UploadSessionDTO;
+import mobidoc.ci.model.UploadSession;
+import org.mapstruct.*;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface UploadSessionMapper {
+
+    @Mapping(target = "patientId", source = "patient.id")
+    UploadSessionDTO toDto(UploadSession uploadSession);
+}
@@ -0,0 +1,63 @@
+package mobidoc.ci.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import mobidoc.ci.model.common.BaseEntity;
+import mobidoc.ci.model.enums.DocumentProcessingStatus;
+import mobidoc.ci.model.enums.DocumentStatus;
+
+@Entity
+@Table(name = "documents")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Document extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    // Key of the content in the document store, not a public URL
+    @Column(name = "file_url", nullable = false)
+    private String fileUrl;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    private String checksum;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private DocumentStatus status = DocumentStatus.ACTIVE;
+
+    // Filled in by background processing once the document has committed
+    @Enumerated(EnumType.STRING)
+    @Column(name = "processing_status", nullable = false)
+    @Builder.Default
+    private DocumentProcessingStatus processingStatus = DocumentProcessingStatus.PENDING;
+
+    @Column(name = "page_count")
+    private Integer pageCount;
+
+    @Column(name = "width_px")
+    private Integer width;
+
+    @Column(name = "height_px")
+    private Integer height;
+
+    private String title;
+
+    private String author;
+}
@@ -0,0 +1,34 @@
+package mobidoc.ci.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.ZonedDateTime;
+
+/**
+ * One stored content shared by every document with the same SHA-256. {@code refCount} is maintained
+ * by triggers on {@code documents}; rows are only ever written by the database and the orphan sweeper.
+ */
+@Entity
+@Table(name = "document_blobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentBlob {
+
+    @Id
+    private String checksum;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false, insertable = false, updatable = false)
+    private int refCount;
+
+    @Column(name = "orphaned_at", insertable = false, updatable = false)
+    private ZonedDateTime orphanedAt;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private ZonedDateTime createdAt;
+}
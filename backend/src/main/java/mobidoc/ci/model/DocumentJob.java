@@ -0,0 +1,43 @@
+package mobidoc.ci.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import mobidoc.ci.model.common.BaseEntity;
+import mobidoc.ci.model.enums.DocumentJobStatus;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Pending background processing of one document. Rows are inserted by a trigger on {@code documents}
+ * and deleted once the document has been processed.
+ */
+@Entity
+@Table(name = "document_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentJob extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_id", nullable = false)
+    private Document document;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private DocumentJobStatus status = DocumentJobStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "run_after", nullable = false)
+    private ZonedDateTime runAfter;
+
+    @Column(name = "locked_until")
+    private ZonedDateTime lockedUntil;
+
+    @Column(name = "last_error")
+    private String lastError;
+}
@@ -0,0 +1,40 @@
+package mobidoc.ci.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import mobidoc.ci.model.common.BaseEntity;
+import mobidoc.ci.model.enums.RenditionKind;
+
+@Entity
+@Table(name = "document_renditions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentRendition extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_id", nullable = false)
+    private Document document;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RenditionKind kind;
+
+    // Content address of the rendition in the document store
+    @Column(nullable = false)
+    private String checksum;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "width_px", nullable = false)
+    private int width;
+
+    @Column(name = "height_px", nullable = false)
+    private int height;
+}
@@ -20,7 +20,7 @@ import java.util.UUID;
 public abstract class BaseEntity implements Serializable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @CreatedDate
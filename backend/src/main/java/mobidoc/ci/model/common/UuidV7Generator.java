@@ -0,0 +1,50 @@
+package mobidoc.ci.model.common;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RFC 9562 version 7 UUIDs: a 48 bit Unix millisecond timestamp followed by a 12 bit counter and
+ * 62 random bits. Keys generated by this instance are strictly increasing, so inserts append to the
+ * right edge of primary key B-trees instead of splitting random pages.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Unix millis << 12 | counter of the last generated id
+    private static final AtomicLong LAST_TIMESTAMP = new AtomicLong();
+
+    public static UUID next() {
+        long candidate = System.currentTimeMillis() << 12;
+        long last;
+        long timestamp;
+        do {
+            last = LAST_TIMESTAMP.get();
+            // Same millisecond or clock moved back: keep counting, overflowing into the next millisecond
+            timestamp = Math.max(candidate, last + 1);
+        } while (!LAST_TIMESTAMP.compareAndSet(last, timestamp));
+
+        long mostSigBits = (timestamp >>> 12) << 16 | 0x7000L | (timestamp & 0xFFFL);
+        long leastSigBits = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,8 @@
+package mobidoc.ci.model.enums;
+
+public enum DocumentProcessingStatus {
+    PENDING,
+    PROCESSED,
+    UNSUPPORTED,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package mobidoc.ci.model.enums;
+
+public enum DocumentStatus {
+    ACTIVE,
+    ARCHIVED
+}
@@ -0,0 +1,62 @@
+package mobidoc.ci.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "monitoring.sql", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInstrumentationConfig {
+
+    @Bean
+    SqlInstrumentationListener sqlInstrumentationListener(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${monitoring.sql.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${monitoring.sql.slow-sample-rate:0.1}") double slowSampleRate) {
+        return new SqlInstrumentationListener(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                slowThreshold, slowSampleRate);
+    }
+
+    /**
+     * Wraps the pool rather than individual connections so that every statement, including Flyway's
+     * and native queries, passes through the listener.
+     */
+    @Bean
+    static BeanPostProcessor sqlInstrumentationDataSourceWrapper(ObjectProvider<SqlInstrumentationListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                SqlInstrumentationListener sqlListener = listener.getObject();
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(sqlListener)
+                        .methodListener(sqlListener)
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(ObjectProvider<MeterRegistry> meterRegistry) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatisticsFilter(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,107 @@
+package mobidoc.ci.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Receives every statement and result set row from the proxied {@code DataSource}. Feeds the current
+ * request's {@link SqlRequestStatistics}, a per-statement-type timer, and a sampled slow statement log
+ * that includes bind values.
+ */
+@Slf4j
+class SqlInstrumentationListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdMillis;
+    private final double slowSampleRate;
+
+    SqlInstrumentationListener(MeterRegistry meterRegistry, Duration slowThreshold, double slowSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.slowSampleRate = slowSampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+
+        Timer.builder("db.statements")
+                .tag("type", statementType(sql))
+                .register(meterRegistry)
+                .record(elapsedMillis, TimeUnit.MILLISECONDS);
+
+        SqlRequestStatistics statistics = SqlRequestStatistics.current();
+        if (statistics != null) {
+            statistics.recordStatement(sql, elapsedMillis);
+        }
+
+        if (elapsedMillis >= slowThresholdMillis && ThreadLocalRandom.current().nextDouble() < slowSampleRate) {
+            log.warn("Slow SQL ({} ms, batch size {}): {} params={}", elapsedMillis, execInfo.getBatchSize(), sql,
+                    bindValues(queryInfoList.isEmpty() ? null : queryInfoList.get(0)));
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            SqlRequestStatistics statistics = SqlRequestStatistics.current();
+            if (statistics != null) {
+                statistics.rows++;
+            }
+        }
+    }
+
+    private static String statementType(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete" -> keyword;
+            default -> "other";
+        };
+    }
+
+    private static String bindValues(QueryInfo queryInfo) {
+        if (queryInfo == null || queryInfo.getParametersList().isEmpty()) {
+            return "[]";
+        }
+        // Batched statements only log the first parameter set
+        List<ParameterSetOperation> parameters = queryInfo.getParametersList().get(0);
+        return parameters.stream()
+                .map(operation -> {
+                    Object[] args = operation.getArgs();
+                    return args.length > 1 ? String.valueOf(args[1]) : "?";
+                })
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -0,0 +1,43 @@
+package mobidoc.ci.monitoring;
+
+/**
+ * SQL work done by the current request. Only the request thread touches it, so no synchronization is needed.
+ */
+final class SqlRequestStatistics {
+
+    private static final ThreadLocal<SqlRequestStatistics> CURRENT = new ThreadLocal<>();
+
+    int statements;
+    long totalMillis;
+    long rows;
+    long slowestMillis = -1;
+    String slowestSql;
+
+    static SqlRequestStatistics begin() {
+        SqlRequestStatistics statistics = new SqlRequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static SqlRequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(String sql, long elapsedMillis) {
+        statements++;
+        totalMillis += elapsedMillis;
+        if (elapsedMillis > slowestMillis) {
+            slowestMillis = elapsedMillis;
+            slowestSql = sql;
+        }
+    }
+
+    String toHeaderValue() {
+        return "statements=" + statements + ";time=" + totalMillis + "ms;rows=" + rows
+                + ";slowest=" + Math.max(slowestMillis, 0) + "ms";
+    }
+}
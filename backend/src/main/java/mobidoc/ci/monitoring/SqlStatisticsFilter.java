@@ -0,0 +1,75 @@
+package mobidoc.ci.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens the per-request SQL statistics and publishes them once the request completes,
+ * tagged with the matched route template so that metric cardinality stays bounded.
+ * At debug level each request is also logged with its slowest statement, as prepared and without bind values.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 200;
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStatistics statistics = SqlRequestStatistics.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestStatistics.end();
+            String route = routeOf(request);
+            record(route, statistics);
+            if (log.isDebugEnabled() && statistics.statements > 0) {
+                log.debug("SQL for {} {}: {} statements, {} ms, {} rows, slowest {} ms: {}", request.getMethod(), route,
+                        statistics.statements, statistics.totalMillis, statistics.rows, statistics.slowestMillis,
+                        truncate(statistics.slowestSql));
+            }
+        }
+    }
+
+    private static String truncate(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ").strip();
+        return singleLine.length() <= MAX_LOGGED_SQL_LENGTH
+                ? singleLine
+                : singleLine.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+
+    private void record(String route, SqlRequestStatistics statistics) {
+        DistributionSummary.builder("db.request.statements")
+                .tag("uri", route)
+                .register(meterRegistry)
+                .record(statistics.statements);
+        DistributionSummary.builder("db.request.rows")
+                .tag("uri", route)
+                .register(meterRegistry)
+                .record(statistics.rows);
+        Timer.builder("db.request.time")
+                .tag("uri", route)
+                .register(meterRegistry)
+                .record(statistics.totalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,38 @@
+package mobidoc.ci.monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds an {@code X-SQL-Statistics} header just before the body is written, when all SQL of the
+ * request has run. Active only when {@code monitoring.sql.response-header} is enabled, which
+ * should never be the case in production.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(prefix = "monitoring.sql", name = "response-header", havingValue = "true")
+class SqlStatisticsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String HEADER = "X-SQL-Statistics";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlRequestStatistics statistics = SqlRequestStatistics.current();
+        if (statistics != null) {
+            response.getHeaders().set(HEADER, statistics.toHeaderValue());
+        }
+        return body;
+    }
+}
@@ -2,6 +2,7 @@ package mobidoc.ci.repository;
 
 import mobidoc.ci.model.Appointment;
 import mobidoc.ci.model.enums.AppointmentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -18,12 +19,28 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
     Page<Appointment> findByDoctorId(UUID doctorId, Pageable pageable);
     Page<Appointment> findByPatientId(UUID patientId, Pageable pageable);
     
+    // Keyset listings, newest first; (appointmentDateTime, id) is unique so pages never overlap
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = ?1 ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<Appointment> findDoctorAppointmentsFirst(UUID doctorId, Limit limit);
+    
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = ?1 AND (a.appointmentDateTime, a.id) < (?2, ?3) ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<Appointment> findDoctorAppointmentsBefore(UUID doctorId, ZonedDateTime dateTime, UUID id, Limit limit);
+    
+    @Query("SELECT a FROM Appointment a WHERE a.patient.id = ?1 ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<Appointment> findPatientAppointmentsFirst(UUID patientId, Limit limit);
+    
+    @Query("SELECT a FROM Appointment a WHERE a.patient.id = ?1 AND (a.appointmentDateTime, a.id) < (?2, ?3) ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<Appointment> findPatientAppointmentsBefore(UUID patientId, ZonedDateTime dateTime, UUID id, Limit limit);
+    
     Page<Appointment> findByDoctorIdAndStatus(UUID doctorId, AppointmentStatus status, Pageable pageable);
     Page<Appointment> findByPatientIdAndStatus(UUID patientId, AppointmentStatus status, Pageable pageable);
     
     @Query("SELECT a FROM Appointment a WHERE a.doctor.id = ?1 AND a.appointmentDateTime BETWEEN ?2 AND ?3")
     List<Appointment> findDoctorAppointmentsForDay(UUID doctorId, ZonedDateTime start, ZonedDateTime end);
     
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = ?1 AND a.appointmentDateTime >= ?2 AND a.appointmentDateTime < ?3")
+    List<Appointment> findDoctorAppointmentsInRange(UUID doctorId, ZonedDateTime start, ZonedDateTime end);
+    
     @Query("SELECT a FROM Appointment a WHERE a.doctor.id = ?1 AND a.status = ?2 AND a.appointmentDateTime BETWEEN ?3 AND ?4")
     List<Appointment> findDoctorAppointmentsForDayByStatus(UUID doctorId, AppointmentStatus status, ZonedDateTime start, ZonedDateTime end);
     
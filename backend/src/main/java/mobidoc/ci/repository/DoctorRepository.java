@@ -1,22 +1,54 @@
 package mobidoc.ci.repository;
 
+import jakarta.persistence.QueryHint;
+import mobidoc.ci.dto.DoctorSummaryDTO;
 import mobidoc.ci.model.Doctor;
+import mobidoc.ci.repository.projection.StatusCount;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, UUID> {
     Optional<Doctor> findByUserUsername(String username);
     Optional<Doctor> findByUserEmail(String email);
     Optional<Doctor> findByLicenseNumber(String licenseNumber);
     List<Doctor> findBySpeciality(String speciality);
+    
+    // List pages fetch user and profile in the page query; schedules load in batches (default_batch_fetch_size)
+    @Override
+    @EntityGraph(attributePaths = {"user", "user.profile"})
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    Page<Doctor> findAll(Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"user", "user.profile"})
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
     Page<Doctor> findBySpeciality(String speciality, Pageable pageable);
+    
+    @Query(value = "SELECT new mobidoc.ci.dto.DoctorSummaryDTO(d.id, pr.firstName, pr.lastName, d.speciality, " +
+            "d.experienceYears, d.consultationFee) FROM Doctor d JOIN d.user u JOIN u.profile pr",
+            countQuery = "SELECT COUNT(d) FROM Doctor d JOIN d.user u JOIN u.profile pr")
+    Page<DoctorSummaryDTO> findSummaries(Pageable pageable);
+    
+    @Query("SELECT d.id FROM Doctor d WHERE d.speciality = ?1")
+    List<UUID> findIdsBySpeciality(String speciality);
+    
+    // Maintained by triggers on appointments (V13), spread over buckets that are summed here (V19)
+    @Query(value = "SELECT status AS status, CAST(sum(appointment_count) AS BIGINT) AS count " +
+            "FROM doctor_appointment_counts WHERE doctor_id = ?1 GROUP BY status",
+            nativeQuery = true)
+    List<StatusCount> findAppointmentCountsByStatus(UUID doctorId);
+    
     boolean existsByLicenseNumber(String licenseNumber);
     boolean existsByUserEmail(String email);
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package mobidoc.ci.repository;
+
+import mobidoc.ci.model.DocumentBlob;
+import mobidoc.ci.repository.projection.BlobStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Repository
+public interface DocumentBlobRepository extends JpaRepository<DocumentBlob, String> {
+
+    // Locked so that a concurrent upload of the same content waits until the file and row are gone
+    @Query(value = "SELECT b.* FROM document_blobs b " +
+            "WHERE b.ref_count = 0 AND b.orphaned_at < :before " +
+            "ORDER BY b.orphaned_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<DocumentBlob> lockOrphans(@Param("before") ZonedDateTime before, @Param("limit") int limit);
+
+    // Records a file published by a transaction that then rolled back, so the sweeper can reclaim it
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO document_blobs (checksum, size_bytes, ref_count, orphaned_at) " +
+            "VALUES (:checksum, :size, 0, CURRENT_TIMESTAMP) ON CONFLICT (checksum) DO NOTHING",
+            nativeQuery = true)
+    int registerOrphan(@Param("checksum") String checksum, @Param("size") long size);
+
+    @Query(value = "SELECT CAST(coalesce(sum(b.size_bytes * b.ref_count), 0) AS bigint) AS logicalBytes, " +
+            "CAST(coalesce(sum(b.size_bytes) FILTER (WHERE b.ref_count > 0), 0) AS bigint) AS physicalBytes, " +
+            "count(*) FILTER (WHERE b.ref_count > 0) AS blobs " +
+            "FROM document_blobs b",
+            nativeQuery = true)
+    BlobStatistics statistics();
+}
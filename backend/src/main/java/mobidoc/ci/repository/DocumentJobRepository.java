@@ -0,0 +1,28 @@
+package mobidoc.ci.repository;
+
+import mobidoc.ci.model.DocumentJob;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DocumentJobRepository extends JpaRepository<DocumentJob, UUID> {
+
+    // Due jobs without a live lease; rows claimed by another worker are skipped rather than waited for
+    @Query(value = "SELECT j.* FROM document_jobs j " +
+            "WHERE j.status = 'PENDING' AND j.run_after <= :now " +
+            "AND (j.locked_until IS NULL OR j.locked_until < :now) " +
+            "ORDER BY j.run_after LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<DocumentJob> lockDue(@Param("now") ZonedDateTime now, @Param("limit") int limit);
+
+    @EntityGraph(attributePaths = "document")
+    Optional<DocumentJob> findWithDocumentById(UUID id);
+}
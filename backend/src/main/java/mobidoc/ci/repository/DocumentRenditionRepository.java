@@ -0,0 +1,17 @@
+package mobidoc.ci.repository;
+
+import mobidoc.ci.model.DocumentRendition;
+import mobidoc.ci.model.enums.RenditionKind;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DocumentRenditionRepository extends JpaRepository<DocumentRendition, UUID> {
+    @EntityGraph(attributePaths = "document")
+    Optional<DocumentRendition> findByDocumentIdAndDocumentPatientIdAndKind(UUID documentId, UUID patientId,
+                                                                              RenditionKind kind);
+}
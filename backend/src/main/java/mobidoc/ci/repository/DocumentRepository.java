@@ -0,0 +1,16 @@
+package mobidoc.ci.repository;
+
+import mobidoc.ci.model.Document;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DocumentRepository extends JpaRepository<Document, UUID> {
+    Optional<Document> findByIdAndPatientId(UUID id, UUID patientId);
+
+    List<Document> findByPatientIdOrderByCreatedAtDesc(UUID patientId);
+}
@@ -1,29 +1,95 @@
 package mobidoc.ci.repository;
 
+import jakarta.persistence.QueryHint;
+import mobidoc.ci.dto.PatientSummaryDTO;
 import mobidoc.ci.model.Patient;
+import mobidoc.ci.repository.projection.MedicalTextMatch;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, UUID> {
     Optional<Patient> findByUserUsername(String username);
     Optional<Patient> findByUserEmail(String email);
     
-    @Query("SELECT p FROM Patient p WHERE p.user.profile.firstName LIKE %?1% OR p.user.profile.lastName LIKE %?1%")
-    Page<Patient> searchByName(String name, Pageable pageable);
+    // List pages fetch user and profile in the page query; medical records load in batches (default_batch_fetch_size)
+    @Override
+    @EntityGraph(attributePaths = {"user", "user.profile"})
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    Page<Patient> findAll(Pageable pageable);
+    
+    @Query(value = "SELECT new mobidoc.ci.dto.PatientSummaryDTO(p.id, pr.firstName, pr.lastName, u.email, pr.phone, " +
+            "pr.dateOfBirth, p.bloodGroup) FROM Patient p JOIN p.user u JOIN u.profile pr",
+            countQuery = "SELECT COUNT(p) FROM Patient p JOIN p.user u JOIN u.profile pr")
+    Page<PatientSummaryDTO> findSummaries(Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"user", "user.profile"})
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT p FROM Patient p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Patient> findFirstPatients(Limit limit);
+    
+    @EntityGraph(attributePaths = {"user", "user.profile"})
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT p FROM Patient p WHERE (p.createdAt, p.id) < (?1, ?2) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Patient> findPatientsBefore(ZonedDateTime createdAt, UUID id, Limit limit);
+    
+    // Ranked by name prefix (first or last name), then trigram word similarity over name, email and phone
+    @Query(value = "SELECT p.* FROM patients p " +
+            "WHERE p.search_text LIKE '%' || search_normalize(:term) || '%' " +
+            "ORDER BY CASE WHEN p.search_name LIKE search_normalize(:term) || '%' THEN 0 " +
+            "WHEN p.search_name LIKE '% ' || search_normalize(:term) || '%' THEN 1 ELSE 2 END, " +
+            "word_similarity(search_normalize(:term), p.search_text) DESC, p.id",
+            countQuery = "SELECT count(*) FROM patients p WHERE p.search_text LIKE '%' || search_normalize(:term) || '%'",
+            nativeQuery = true)
+    Page<Patient> search(@Param("term") String term, Pageable pageable);
+    
+    // Terms too short to produce a trigram are matched as first-name prefixes on a btree index
+    @Query(value = "SELECT p.* FROM patients p WHERE p.search_name LIKE search_normalize(:term) || '%' " +
+            "ORDER BY p.search_name, p.id",
+            countQuery = "SELECT count(*) FROM patients p WHERE p.search_name LIKE search_normalize(:term) || '%'",
+            nativeQuery = true)
+    Page<Patient> searchByNamePrefix(@Param("term") String term, Pageable pageable);
     
     @Query("SELECT DISTINCT p.bloodGroup FROM Patient p WHERE p.bloodGroup IS NOT NULL")
     List<String> findAllBloodGroups();
     
+    @EntityGraph(attributePaths = {"user", "user.profile"})
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
     Page<Patient> findByBloodGroup(String bloodGroup, Pageable pageable);
     
-    @Query("SELECT p FROM Patient p WHERE p.medicalHistory LIKE %?1%")
-    Page<Patient> searchByMedicalHistory(String keyword, Pageable pageable);
+    // Ranks every match, then builds headlines only for the requested page since ts_headline re-parses the text
+    @Query(value = "WITH q AS (SELECT websearch_to_tsquery('english', :query) AS query), " +
+            "hits AS (" +
+            "(SELECT p.id AS patient_id, CAST(NULL AS uuid) AS record_id, ts_rank_cd(p.history_tsv, q.query) AS rank " +
+            "FROM patients p, q WHERE p.history_tsv @@ q.query) " +
+            "UNION ALL " +
+            "(SELECT r.patient_id, r.id, ts_rank_cd(r.description_tsv, q.query) " +
+            "FROM medical_records r, q WHERE r.description_tsv @@ q.query) " +
+            "ORDER BY rank DESC, patient_id, record_id NULLS FIRST " +
+            "LIMIT :limit OFFSET :offset) " +
+            "SELECT h.patient_id AS patientId, h.record_id AS medicalRecordId, h.rank AS rank, " +
+            "ts_headline('english', " +
+            "CASE WHEN h.record_id IS NULL THEN concat_ws(' / ', p.medical_history, p.allergies) ELSE r.description END, " +
+            "q.query, 'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=25, MinWords=8') AS snippet " +
+            "FROM hits h CROSS JOIN q " +
+            "JOIN patients p ON p.id = h.patient_id " +
+            "LEFT JOIN medical_records r ON r.id = h.record_id " +
+            "ORDER BY h.rank DESC, h.patient_id, h.record_id NULLS FIRST",
+            nativeQuery = true)
+    List<MedicalTextMatch> searchMedicalText(@Param("query") String query, @Param("limit") int limit,
+                                             @Param("offset") long offset);
 }
\ No newline at end of file
@@ -18,8 +18,8 @@ public interface ScheduleRepository extends JpaRepository<Schedule, UUID> {
     
     List<Schedule> findByDoctorIdAndDayOfWeek(UUID doctorId, Integer dayOfWeek);
     
-    @Query("SELECT s FROM Schedule s WHERE s.doctor.id = ?1 AND s.dayOfWeek = ?2 AND s.startTime <= ?3 AND s.endTime >= ?3")
-    List<Schedule> findOverlappingSchedules(UUID doctorId, Integer dayOfWeek, LocalTime time);
+    @Query("SELECT s FROM Schedule s WHERE s.doctor.id = ?1 AND s.dayOfWeek = ?2 AND s.startTime < ?4 AND s.endTime > ?3")
+    List<Schedule> findOverlappingSchedules(UUID doctorId, Integer dayOfWeek, LocalTime startTime, LocalTime endTime);
     
     boolean existsByDoctorIdAndDayOfWeekAndStartTimeBetween(
         UUID doctorId, 
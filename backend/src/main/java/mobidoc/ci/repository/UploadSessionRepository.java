@@ -0,0 +1,26 @@
+package mobidoc.ci.repository;
+
+import mobidoc.ci.model.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, UUID> {
+    Optional<UploadSession> findByIdAndPatientId(UUID id, UUID patientId);
+
+    List<UploadSession> findByExpiresAtBefore(ZonedDateTime time);
+
+    // Only applies if the offset is still the one the caller read
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession u SET u.receivedBytes = ?3 WHERE u.id = ?1 AND u.receivedBytes = ?2")
+    int updateReceivedBytes(UUID id, long expectedBytes, long receivedBytes);
+}
@@ -1,9 +1,16 @@
 package mobidoc.ci.repository;
 
 import mobidoc.ci.model.User;
+import mobidoc.ci.model.enums.UserRole;
+import mobidoc.ci.model.enums.UserStatus;
+import mobidoc.ci.repository.projection.RoleStatusCount;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,4 +22,13 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByKeycloakId(String keycloakId);
+    
+    Page<User> findByRole(UserRole role, Pageable pageable);
+    Page<User> findByRoleAndStatus(UserRole role, UserStatus status, Pageable pageable);
+    
+    // Maintained by triggers on users, so this reads a handful of rows whatever the number of users
+    @Query(value = "SELECT role AS role, status AS status, user_count AS count FROM user_role_status_counts " +
+            "WHERE user_count > 0",
+            nativeQuery = true)
+    List<RoleStatusCount> countByRoleAndStatus();
 }
\ No newline at end of file
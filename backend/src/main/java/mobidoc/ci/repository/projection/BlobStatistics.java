@@ -0,0 +1,11 @@
+package mobidoc.ci.repository.projection;
+
+public interface BlobStatistics {
+    // Bytes as seen by documents, counting shared content once per reference
+    Long getLogicalBytes();
+    
+    // Bytes actually kept in the store for referenced content
+    Long getPhysicalBytes();
+    
+    Long getBlobs();
+}
@@ -0,0 +1,14 @@
+package mobidoc.ci.repository.projection;
+
+import java.util.UUID;
+
+public interface MedicalTextMatch {
+    UUID getPatientId();
+    
+    // Null when the match is in the patient's own history or allergies
+    UUID getMedicalRecordId();
+    
+    Float getRank();
+    
+    String getSnippet();
+}
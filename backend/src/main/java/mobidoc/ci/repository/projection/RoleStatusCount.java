@@ -0,0 +1,10 @@
+package mobidoc.ci.repository.projection;
+
+import mobidoc.ci.model.enums.UserRole;
+import mobidoc.ci.model.enums.UserStatus;
+
+public interface RoleStatusCount {
+    UserRole getRole();
+    UserStatus getStatus();
+    long getCount();
+}
@@ -0,0 +1,6 @@
+package mobidoc.ci.repository.projection;
+
+public interface StatusCount {
+    String getStatus();
+    long getCount();
+}
@@ -0,0 +1,55 @@
+package mobidoc.ci.repository.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import mobidoc.ci.model.common.BaseEntity;
+import mobidoc.ci.model.common.UuidV7;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Inserts many new entities of the current transaction as JDBC batches.
+ * <p>
+ * Entities are persisted directly instead of going through {@code save}, which would merge any entity
+ * that already carries an id. Ids are generated in memory at persist time ({@link UuidV7}), so no round
+ * trip is needed before a row can join a batch. Every {@code batch_size} rows the pending inserts are
+ * flushed and those entities detached, keeping the persistence context small for large imports without
+ * evicting the caller's other managed entities.
+ */
+@Component
+public class BulkWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T extends BaseEntity> List<T> persistAll(Collection<T> entities) {
+        List<T> chunk = new ArrayList<>(Math.min(entities.size(), batchSize));
+        for (T entity : entities) {
+            entityManager.persist(entity);
+            chunk.add(entity);
+            if (chunk.size() == batchSize) {
+                flushAndDetach(chunk);
+            }
+        }
+        if (entities.size() > batchSize) {
+            flushAndDetach(chunk);
+        }
+        return List.copyOf(entities);
+    }
+
+    private void flushAndDetach(List<? extends BaseEntity> chunk) {
+        entityManager.flush();
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+    }
+}
@@ -0,0 +1,60 @@
+package mobidoc.ci.repository.support;
+
+import mobidoc.ci.dto.CursorPageDTO;
+import mobidoc.ci.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Position after the last row of a keyset page, ordered by a timestamp and then by id.
+ * Encoded as an opaque URL-safe token so clients cannot depend on its contents.
+ */
+public record KeysetCursor(ZonedDateTime timestamp, UUID id) {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected 3 parts, got " + parts.length);
+            }
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new KeysetCursor(instant.atZone(ZoneOffset.UTC), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public static int pageSize(int requested) {
+        if (requested < 1) {
+            throw new InvalidCursorException("Page size must be positive");
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Builds a page from {@code rows} fetched with a limit of {@code size + 1}; the extra row only
+     * signals that another page exists and is not returned.
+     */
+    public static <E, D> CursorPageDTO<D> page(List<E> rows, int size, Function<E, KeysetCursor> position,
+                                               Function<E, D> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? position.apply(content.get(size - 1)).encode() : null;
+        return new CursorPageDTO<>(content.stream().map(mapper).toList(), nextCursor);
+    }
+
+    public String encode() {
+        Instant instant = timestamp.toInstant();
+        String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
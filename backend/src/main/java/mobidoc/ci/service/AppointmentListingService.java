@@ -0,0 +1,12 @@
+package mobidoc.ci.service;
+
+import mobidoc.ci.dto.AppointmentDTO;
+import mobidoc.ci.dto.CursorPageDTO;
+
+import java.util.UUID;
+
+public interface AppointmentListingService {
+    // Newest first; pass the previous page's nextCursor to continue, or null for the first page
+    CursorPageDTO<AppointmentDTO> getDoctorAppointments(UUID doctorId, String cursor, int size);
+    CursorPageDTO<AppointmentDTO> getPatientAppointments(UUID patientId, String cursor, int size);
+}
@@ -0,0 +1,11 @@
+package mobidoc.ci.service;
+
+import mobidoc.ci.dto.AppointmentDTO;
+
+import java.util.UUID;
+
+public interface BookingService {
+    AppointmentDTO bookAppointment(AppointmentDTO appointmentDTO);
+    AppointmentDTO rescheduleAppointment(UUID id, AppointmentDTO appointmentDTO);
+    boolean hasConflicts(AppointmentDTO appointmentDTO);
+}
@@ -1,6 +1,8 @@
 package mobidoc.ci.service;
 
 import mobidoc.ci.dto.DoctorDTO;
+import mobidoc.ci.dto.DoctorSummaryDTO;
+import mobidoc.ci.dto.EarliestAvailabilityDTO;
 import mobidoc.ci.dto.ScheduleDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +17,7 @@ public interface DoctorService {
     DoctorDTO getDoctorById(UUID id);
     DoctorDTO getDoctorByUserId(UUID userId);
     Page<DoctorDTO> getAllDoctors(Pageable pageable);
+    Page<DoctorSummaryDTO> getDoctorSummaries(Pageable pageable);
     Page<DoctorDTO> getDoctorsBySpeciality(String speciality, Pageable pageable);
     void deleteDoctor(UUID id);
     
@@ -26,8 +29,10 @@ public interface DoctorService {
     // Availability check
     boolean isDoctorAvailable(UUID doctorId, LocalDate date);
     List<String> getAvailableTimeSlots(UUID doctorId, LocalDate date);
+    EarliestAvailabilityDTO findEarliestAvailableBySpeciality(String speciality, int limit, long budgetMillis);
     
     // Statistics
+    DoctorDTO getDoctorStatistics(UUID doctorId);
     long getCompletedAppointmentsCount(UUID doctorId);
     double getAverageRating(UUID doctorId);
     
@@ -0,0 +1,15 @@
+package mobidoc.ci.service;
+
+import mobidoc.ci.dto.DocumentDTO;
+import mobidoc.ci.dto.UploadSessionDTO;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface DocumentUploadService {
+    UploadSessionDTO createUpload(UUID patientId, UploadSessionDTO uploadDTO);
+    UploadSessionDTO getUpload(UUID patientId, UUID uploadId);
+    UploadSessionDTO writeChunk(UUID patientId, UUID uploadId, long offset, long length, InputStream content);
+    DocumentDTO completeUpload(UUID patientId, UUID uploadId);
+    void abortUpload(UUID patientId, UUID uploadId);
+}
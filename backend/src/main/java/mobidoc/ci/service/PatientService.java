@@ -0,0 +1,47 @@
+package mobidoc.ci.service;
+
+import mobidoc.ci.dto.CursorPageDTO;
+import mobidoc.ci.dto.DocumentDTO;
+import mobidoc.ci.dto.MedicalRecordDTO;
+import mobidoc.ci.dto.MedicalTextMatchDTO;
+import mobidoc.ci.dto.PatientDTO;
+import mobidoc.ci.dto.PatientSummaryDTO;
+import mobidoc.ci.model.enums.RenditionKind;
+import mobidoc.ci.service.storage.DocumentContent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+public interface PatientService {
+    PatientDTO createPatient(PatientDTO patientDTO);
+    PatientDTO updatePatient(UUID id, PatientDTO patientDTO);
+    PatientDTO getPatientById(UUID id);
+    PatientDTO getPatientByUserId(UUID userId);
+    Page<PatientDTO> getAllPatients(Pageable pageable);
+    CursorPageDTO<PatientDTO> getAllPatients(String cursor, int size);
+    Page<PatientSummaryDTO> getPatientSummaries(Pageable pageable);
+    Page<PatientDTO> searchPatients(String searchTerm, Pageable pageable);
+    Slice<MedicalTextMatchDTO> searchMedicalText(String query, Pageable pageable);
+    void deletePatient(UUID id);
+    
+    // Medical records
+    List<MedicalRecordDTO> getPatientMedicalRecords(UUID patientId);
+    MedicalRecordDTO addMedicalRecord(UUID patientId, MedicalRecordDTO recordDTO);
+    List<MedicalRecordDTO> addMedicalRecords(UUID patientId, List<MedicalRecordDTO> recordDTOs);
+    void deleteMedicalRecord(UUID patientId, UUID recordId);
+    
+    // Blood groups
+    List<String> getAllBloodGroups();
+    Page<PatientDTO> getPatientsByBloodGroup(String bloodGroup, Pageable pageable);
+    
+    // Documents
+    DocumentDTO addDocument(UUID patientId, String documentType, String fileName, String contentType, InputStream content);
+    void deleteDocument(UUID patientId, UUID documentId);
+    DocumentContent getDocument(UUID patientId, UUID documentId);
+    List<DocumentDTO> getPatientDocuments(UUID patientId);
+    DocumentContent getDocumentPreview(UUID patientId, UUID documentId, RenditionKind kind);
+}
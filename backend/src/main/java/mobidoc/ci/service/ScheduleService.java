@@ -1,6 +1,9 @@
 package mobidoc.ci.service;
 
+import mobidoc.ci.dto.AvailabilityCalendarDTO;
+import mobidoc.ci.dto.ScheduleConflictDTO;
 import mobidoc.ci.dto.ScheduleDTO;
+import mobidoc.ci.dto.WeeklyScheduleUpdateDTO;
 import mobidoc.ci.model.enums.ScheduleStatus;
 
 import java.time.LocalDate;
@@ -21,8 +24,10 @@ public interface ScheduleService {
     // Validation and checks
     boolean isTimeSlotAvailable(UUID doctorId, Integer dayOfWeek, LocalTime startTime, LocalTime endTime);
     List<String> getAvailableSlots(UUID doctorId, LocalDate date);
+    AvailabilityCalendarDTO getAvailabilityCalendar(UUID doctorId, LocalDate from, LocalDate to);
     
     // Bulk operations
+    List<ScheduleConflictDTO> validateWeeklySchedule(UUID doctorId, List<ScheduleDTO> weeklySchedule);
     void createWeeklySchedule(UUID doctorId, List<ScheduleDTO> weeklySchedule);
-    void updateWeeklySchedule(UUID doctorId, List<ScheduleDTO> weeklySchedule);
+    WeeklyScheduleUpdateDTO updateWeeklySchedule(UUID doctorId, List<ScheduleDTO> weeklySchedule);
 }
\ No newline at end of file
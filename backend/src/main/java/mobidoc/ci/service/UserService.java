@@ -1,10 +1,13 @@
 package mobidoc.ci.service;
 
+import mobidoc.ci.dto.UserCountDTO;
 import mobidoc.ci.dto.UserDTO;
 import mobidoc.ci.model.enums.UserRole;
+import mobidoc.ci.model.enums.UserStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface UserService {
@@ -14,6 +17,8 @@ public interface UserService {
     UserDTO getUserByUsername(String username);
     Page<UserDTO> getAllUsers(Pageable pageable);
     Page<UserDTO> getUsersByRole(UserRole role, Pageable pageable);
+    Page<UserDTO> getUsersByRoleAndStatus(UserRole role, UserStatus status, Pageable pageable);
+    List<UserCountDTO> getUserCounts();
     void deleteUser(UUID id);
     void updateUserStatus(UUID id, String status);
     boolean existsByUsername(String username);
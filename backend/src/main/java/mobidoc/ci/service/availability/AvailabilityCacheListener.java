@@ -0,0 +1,128 @@
+package mobidoc.ci.service.availability;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import mobidoc.ci.model.Appointment;
+import mobidoc.ci.model.Schedule;
+import mobidoc.ci.model.enums.AppointmentStatus;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Feeds committed appointment and schedule changes into the {@link SlotAvailabilityEngine},
+ * whichever service or cascade performed them.
+ */
+@Component
+@RequiredArgsConstructor
+class AvailabilityCacheListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final transient EntityManagerFactory entityManagerFactory;
+    private final transient SlotAvailabilityEngine availabilityEngine;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        return entityClass == Appointment.class || entityClass == Schedule.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Appointment appointment) {
+            if (SlotAvailabilityEngine.blocksSlot(appointment.getStatus())) {
+                availabilityEngine.appointmentBooked(doctorId(appointment), appointment.getAppointmentDateTime(),
+                        SlotAvailabilityEngine.durationMinutes(appointment.getDurationMinutes()));
+            }
+        } else if (event.getEntity() instanceof Schedule schedule) {
+            scheduleChanged(schedule);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Appointment appointment) {
+            UUID doctorId = doctorId(appointment);
+            Object[] oldState = event.getOldState();
+            if (oldState == null) {
+                availabilityEngine.evict(doctorId);
+                return;
+            }
+
+            String[] propertyNames = event.getPersister().getPropertyNames();
+            ZonedDateTime oldDateTime = (ZonedDateTime) oldState[indexOf(propertyNames, "appointmentDateTime")];
+            AppointmentStatus oldStatus = (AppointmentStatus) oldState[indexOf(propertyNames, "status")];
+            if (SlotAvailabilityEngine.blocksSlot(oldStatus)) {
+                availabilityEngine.appointmentReleased(doctorId, oldDateTime);
+            }
+            if (SlotAvailabilityEngine.blocksSlot(appointment.getStatus())) {
+                availabilityEngine.appointmentBooked(doctorId, appointment.getAppointmentDateTime(),
+                        SlotAvailabilityEngine.durationMinutes(appointment.getDurationMinutes()));
+            }
+        } else if (event.getEntity() instanceof Schedule schedule) {
+            scheduleChanged(schedule);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Appointment appointment) {
+            availabilityEngine.appointmentReleased(doctorId(appointment), appointment.getAppointmentDateTime());
+        } else if (event.getEntity() instanceof Schedule schedule) {
+            scheduleChanged(schedule);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was applied before commit, so there is nothing to roll back.
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void scheduleChanged(Schedule schedule) {
+        // Doctor.removeSchedule detaches the schedule before orphan removal deletes it.
+        if (schedule.getDoctor() == null) {
+            availabilityEngine.evictAll();
+        } else {
+            availabilityEngine.scheduleChanged(schedule.getDoctor().getId());
+        }
+    }
+
+    private static UUID doctorId(Appointment appointment) {
+        return appointment.getDoctor().getId();
+    }
+
+    private static int indexOf(String[] propertyNames, String propertyName) {
+        return Arrays.asList(propertyNames).indexOf(propertyName);
+    }
+}
@@ -0,0 +1,75 @@
+package mobidoc.ci.service.availability;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Occupancy bitmap of a single doctor-day on a 5 minute grid (288 ticks packed into 5 longs).
+ * Every word is updated with CAS so readers never block writers.
+ */
+final class DayOccupancy {
+
+    static final int TICK_MINUTES = 5;
+    static final int TICKS_PER_DAY = 24 * 60 / TICK_MINUTES;
+
+    private final AtomicLongArray words = new AtomicLongArray((TICKS_PER_DAY + 63) / 64);
+
+    void occupy(int startMinute, int minutes) {
+        int from = firstTick(startMinute);
+        int to = lastTickExclusive(startMinute, minutes);
+        for (int tick = from; tick < to; ) {
+            int word = tick >>> 6;
+            int end = Math.min(to, (word + 1) << 6);
+            long mask = mask(tick, end);
+            long current;
+            do {
+                current = words.get(word);
+            } while (!words.compareAndSet(word, current, current | mask));
+            tick = end;
+        }
+    }
+
+    boolean isFree(int startMinute, int minutes) {
+        return isFree(startMinute, minutes, 0, 0);
+    }
+
+    /**
+     * Like {@link #isFree(int, int)}, but ticks of {@code [ignoredStartMinute, ignoredStartMinute + ignoredMinutes)}
+     * do not count as occupied.
+     */
+    boolean isFree(int startMinute, int minutes, int ignoredStartMinute, int ignoredMinutes) {
+        int from = firstTick(startMinute);
+        int to = lastTickExclusive(startMinute, minutes);
+        int ignoredFrom = firstTick(ignoredStartMinute);
+        int ignoredTo = lastTickExclusive(ignoredStartMinute, ignoredMinutes);
+        for (int tick = from; tick < to; ) {
+            int word = tick >>> 6;
+            int end = Math.min(to, (word + 1) << 6);
+            long mask = mask(tick, end) & ~wordMask(word, ignoredFrom, ignoredTo);
+            if ((words.get(word) & mask) != 0) {
+                return false;
+            }
+            tick = end;
+        }
+        return true;
+    }
+
+    private static long wordMask(int word, int fromTick, int toTickExclusive) {
+        int from = Math.max(fromTick, word << 6);
+        int to = Math.min(toTickExclusive, (word + 1) << 6);
+        return from < to ? mask(from, to) : 0;
+    }
+
+    private static int firstTick(int startMinute) {
+        return Math.max(0, startMinute / TICK_MINUTES);
+    }
+
+    private static int lastTickExclusive(int startMinute, int minutes) {
+        return Math.min(TICKS_PER_DAY, (startMinute + minutes + TICK_MINUTES - 1) / TICK_MINUTES);
+    }
+
+    private static long mask(int fromTick, int toTickExclusive) {
+        int width = toTickExclusive - fromTick;
+        long bits = width == 64 ? -1L : (1L << width) - 1;
+        return bits << (fromTick & 63);
+    }
+}
@@ -0,0 +1,28 @@
+package mobidoc.ci.service.availability;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cached availability state of one doctor: slot start minutes per ISO day-of-week (index 1..7)
+ * derived from ACTIVE schedules, plus one occupancy bitmap per cached date.
+ */
+final class DoctorAvailability {
+
+    final AtomicReference<int[][]> weeklySlotStarts = new AtomicReference<>();
+    final ConcurrentMap<LocalDate, DayOccupancy> days = new ConcurrentHashMap<>();
+
+    /** Start minute to length of reservations not yet committed, per date; guarded by the doctor's lock stripe. */
+    final Map<LocalDate, Map<Integer, Integer>> reservations = new HashMap<>();
+
+    /** Bumped before every change so that concurrent loaders can detect they raced with it. */
+    final AtomicLong version = new AtomicLong();
+
+    /** {@link System#nanoTime()} of the last read, for idle and size-bound eviction. */
+    volatile long lastAccess = System.nanoTime();
+}
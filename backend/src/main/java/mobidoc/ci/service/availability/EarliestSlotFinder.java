@@ -0,0 +1,114 @@
+package mobidoc.ci.service.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mobidoc.ci.dto.AvailableSlotDTO;
+import mobidoc.ci.dto.EarliestAvailabilityDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the doctors with the earliest free slot among a set of doctors.
+ * <p>
+ * Per-doctor lookups run in parallel on the availability search pool, and only the {@code limit}
+ * earliest results are kept in a bounded max-heap. Whatever has completed when the latency budget
+ * runs out is returned and flagged as partial; lookups still running keep warming the cache. Doctors whose
+ * lookup failed are left out of the result, which is then flagged as partial as well.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EarliestSlotFinder {
+
+    private static final Comparator<AvailableSlotDTO> LATEST_FIRST =
+            Comparator.comparing(AvailableSlotDTO::getStartDateTime).reversed();
+
+    private final SlotAvailabilityEngine slotAvailabilityEngine;
+    private final ExecutorService availabilitySearchExecutor;
+
+    @Value("${scheduling.availability.search-days:14}")
+    private int searchDays;
+
+    public EarliestAvailabilityDTO find(String speciality, List<UUID> doctorIds, ZonedDateTime notBefore,
+                                        int limit, Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        CompletionService<Optional<AvailableSlotDTO>> completionService =
+                new ExecutorCompletionService<>(availabilitySearchExecutor);
+
+        List<Future<Optional<AvailableSlotDTO>>> futures = new ArrayList<>(doctorIds.size());
+        for (UUID doctorId : doctorIds) {
+            futures.add(completionService.submit(() -> slotAvailabilityEngine
+                    .findEarliestAvailable(doctorId, notBefore, searchDays)
+                    .map(start -> new AvailableSlotDTO(doctorId, start))));
+        }
+
+        PriorityQueue<AvailableSlotDTO> earliest = new PriorityQueue<>(limit + 1, LATEST_FIRST);
+        int completed = 0;
+        int failed = 0;
+        Throwable firstFailure = null;
+        try {
+            while (completed < futures.size()) {
+                long remaining = deadline - System.nanoTime();
+                Future<Optional<AvailableSlotDTO>> future =
+                        remaining > 0 ? completionService.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (future == null) {
+                    break;
+                }
+                completed++;
+                try {
+                    collect(future.get(), earliest, limit);
+                } catch (ExecutionException e) {
+                    failed++;
+                    if (firstFailure == null) {
+                        firstFailure = e.getCause();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Do not interrupt lookups that may be holding a JDBC connection.
+            futures.forEach(future -> future.cancel(false));
+        }
+
+        if (failed > 0) {
+            log.warn("Earliest-slot search for {} skipped {} of {} doctors whose lookup failed",
+                    speciality, failed, futures.size(), firstFailure);
+        }
+
+        List<AvailableSlotDTO> slots = new ArrayList<>(earliest);
+        slots.sort(LATEST_FIRST.reversed());
+
+        EarliestAvailabilityDTO result = new EarliestAvailabilityDTO();
+        result.setSpeciality(speciality);
+        result.setSlots(slots);
+        result.setPartial(completed - failed < futures.size());
+        result.setDoctorsSearched(completed - failed);
+        result.setDoctorsTotal(futures.size());
+        return result;
+    }
+
+    private static void collect(Optional<AvailableSlotDTO> found, PriorityQueue<AvailableSlotDTO> earliest, int limit) {
+        found.ifPresent(slot -> {
+            earliest.offer(slot);
+            if (earliest.size() > limit) {
+                earliest.poll();
+            }
+        });
+    }
+}
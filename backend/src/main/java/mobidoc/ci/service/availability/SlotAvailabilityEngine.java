@@ -0,0 +1,498 @@
+package mobidoc.ci.service.availability;
+
+import lombok.RequiredArgsConstructor;
+import mobidoc.ci.exception.ResourceNotFoundException;
+import mobidoc.ci.exception.ScheduleConflictException;
+import mobidoc.ci.model.Appointment;
+import mobidoc.ci.model.Schedule;
+import mobidoc.ci.model.enums.AppointmentStatus;
+import mobidoc.ci.model.enums.ScheduleStatus;
+import mobidoc.ci.repository.AppointmentRepository;
+import mobidoc.ci.repository.DoctorRepository;
+import mobidoc.ci.repository.ScheduleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory slot availability per doctor and date.
+ * <p>
+ * Weekly slot templates are built once per doctor from ACTIVE schedules, and a compact occupancy
+ * bitmap is built once per doctor-day from its booked appointments. Both are kept current by
+ * {@link AvailabilityCacheListener}, so repeated availability reads are answered without touching the database.
+ * Only doctors that exist are tracked, at most {@code max-doctors} of them, and a doctor not read for
+ * {@code idle-ttl} is dropped.
+ * <p>
+ * The cache is per node: the listener only sees changes committed through this node's persistence context.
+ * With several instances, another node's bookings and schedule edits become visible here only when the
+ * affected day or doctor is reloaded (after a local change to it, or after {@code idle-ttl}), so availability
+ * reads may show a slot that was just taken elsewhere. Double bookings are still impossible, since the
+ * ex_appointments_doctor_overlap exclusion constraint rejects them; a multi-node deployment that needs
+ * exact reads should shorten {@code idle-ttl} accordingly.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlotAvailabilityEngine {
+
+    public static final int SLOT_MINUTES = 30;
+
+    private final ScheduleRepository scheduleRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+
+    private final ConcurrentMap<UUID, DoctorAvailability> doctors = new ConcurrentHashMap<>();
+    private final ReentrantLock[] reservationLocks = newLocks(64);
+
+    @Value("${scheduling.time-zone:UTC}")
+    private ZoneId zone;
+
+    @Value("${scheduling.availability.cache-horizon-days:90}")
+    private int cacheHorizonDays;
+
+    @Value("${scheduling.availability.max-doctors:10000}")
+    private int maxDoctors;
+
+    @Value("${scheduling.availability.idle-ttl:1h}")
+    private Duration idleTtl;
+
+    public List<String> getAvailableSlots(UUID doctorId, LocalDate date) {
+        DoctorAvailability doctor = doctor(doctorId);
+        int[] slotStarts = weeklySlotStarts(doctorId, doctor)[date.getDayOfWeek().getValue()];
+        if (slotStarts.length == 0) {
+            return List.of();
+        }
+
+        int[] freeSlotStarts = freeSlotStarts(slotStarts, occupancy(doctorId, doctor, date));
+        List<String> availableSlots = new ArrayList<>(freeSlotStarts.length);
+        for (int start : freeSlotStarts) {
+            availableSlots.add(LocalTime.ofSecondOfDay(start * 60L).toString());
+        }
+        return availableSlots;
+    }
+
+    /**
+     * Free slot start minutes (minutes since midnight) for every date in {@code [from, to]}.
+     * Dates that are not cached yet are filled from a single appointment query over the whole range.
+     */
+    public Map<LocalDate, int[]> getAvailableSlotStarts(UUID doctorId, LocalDate from, LocalDate to) {
+        DoctorAvailability doctor = doctor(doctorId);
+        int[][] weeklySlotStarts = weeklySlotStarts(doctorId, doctor);
+
+        Map<LocalDate, DayOccupancy> occupancies = new HashMap<>();
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (weeklySlotStarts[date.getDayOfWeek().getValue()].length == 0) {
+                continue;
+            }
+            DayOccupancy cached = doctor.days.get(date);
+            if (cached != null) {
+                occupancies.put(date, cached);
+            } else {
+                missing.add(date);
+            }
+        }
+        if (!missing.isEmpty()) {
+            occupancies.putAll(loadOccupancies(doctorId, doctor, missing.get(0), missing.get(missing.size() - 1)));
+        }
+
+        Map<LocalDate, int[]> calendar = new LinkedHashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            int[] slotStarts = weeklySlotStarts[date.getDayOfWeek().getValue()];
+            calendar.put(date, slotStarts.length == 0 ? slotStarts : freeSlotStarts(slotStarts, occupancies.get(date)));
+        }
+        return calendar;
+    }
+
+    /**
+     * Earliest free slot starting at or after {@code notBefore}, looking at most {@code searchDays} days ahead.
+     */
+    public Optional<ZonedDateTime> findEarliestAvailable(UUID doctorId, ZonedDateTime notBefore, int searchDays) {
+        ZonedDateTime local = notBefore.withZoneSameInstant(zone);
+        LocalDate from = local.toLocalDate();
+        int notBeforeSecond = local.toLocalTime().toSecondOfDay();
+
+        Map<LocalDate, int[]> calendar = getAvailableSlotStarts(doctorId, from, from.plusDays(searchDays - 1L));
+        for (Map.Entry<LocalDate, int[]> day : calendar.entrySet()) {
+            for (int start : day.getValue()) {
+                if (day.getKey().equals(from) && start * 60 < notBeforeSecond) {
+                    continue;
+                }
+                return Optional.of(ZonedDateTime.of(day.getKey(), LocalTime.ofSecondOfDay(start * 60L), zone));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean isSlotFree(UUID doctorId, ZonedDateTime appointmentDateTime, int durationMinutes) {
+        DoctorAvailability doctor = doctor(doctorId);
+        ZonedDateTime local = appointmentDateTime.withZoneSameInstant(zone);
+        return occupancy(doctorId, doctor, local.toLocalDate())
+                .isFree(local.toLocalTime().toSecondOfDay() / 60, durationMinutes);
+    }
+
+    /**
+     * Atomically claims {@code durationMinutes} from {@code appointmentDateTime} in the doctor's occupancy bitmap.
+     * Check-and-mark runs under a per-doctor lock stripe and never spans a database call, so concurrent
+     * bookings for one doctor only serialize on a few memory operations. The claim stays registered as
+     * in flight until {@link #confirmReservation} or {@link #cancelReservation}, so rebuilding the day from
+     * the database in between does not lose it.
+     *
+     * @param replacing current start of an appointment being moved, whose own interval of
+     *                  {@code replacingMinutes} does not count as a conflict; {@code null} for a new booking
+     * @return false if the interval overlaps an existing booking or another in-flight reservation
+     * @throws ScheduleConflictException if the interval is not made of consecutive slots of the doctor's schedule
+     */
+    public boolean reserve(UUID doctorId, ZonedDateTime appointmentDateTime, int durationMinutes,
+                           ZonedDateTime replacing, int replacingMinutes) {
+        DoctorAvailability doctor = doctor(doctorId);
+        ZonedDateTime local = appointmentDateTime.withZoneSameInstant(zone);
+        LocalDate date = local.toLocalDate();
+        int start = local.toLocalTime().toSecondOfDay() / 60;
+        if (!local.toLocalTime().equals(LocalTime.ofSecondOfDay(start * 60L))
+                || !coversScheduledSlots(weeklySlotStarts(doctorId, doctor)[date.getDayOfWeek().getValue()],
+                start, durationMinutes)) {
+            throw new ScheduleConflictException("Doctor has no scheduled slots for " + durationMinutes
+                    + " minutes from " + appointmentDateTime);
+        }
+        DayOccupancy loaded = occupancy(doctorId, doctor, date);
+
+        int ignoredStart = 0;
+        int ignoredMinutes = 0;
+        if (replacing != null) {
+            ZonedDateTime replacingLocal = replacing.withZoneSameInstant(zone);
+            if (replacingLocal.toLocalDate().equals(date)) {
+                ignoredStart = replacingLocal.toLocalTime().toSecondOfDay() / 60;
+                ignoredMinutes = replacingMinutes;
+            }
+        }
+
+        ReentrantLock lock = lock(doctorId);
+        lock.lock();
+        try {
+            // The day may have been rebuilt since it was read; the cached bitmap carries every reservation
+            DayOccupancy occupancy = doctor.days.getOrDefault(date, loaded);
+            if (!occupancy.isFree(start, durationMinutes, ignoredStart, ignoredMinutes)) {
+                return false;
+            }
+            occupancy.occupy(start, durationMinutes);
+            doctor.reservations.computeIfAbsent(date, day -> new HashMap<>()).put(start, durationMinutes);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean reserve(UUID doctorId, ZonedDateTime appointmentDateTime) {
+        return reserve(doctorId, appointmentDateTime, SLOT_MINUTES, null, 0);
+    }
+
+    /**
+     * Ends a reservation whose booking committed; the appointment itself now keeps the slot occupied.
+     */
+    public void confirmReservation(UUID doctorId, ZonedDateTime appointmentDateTime) {
+        DoctorAvailability doctor = doctors.get(doctorId);
+        if (doctor != null) {
+            removeReservation(doctorId, doctor, appointmentDateTime);
+        }
+    }
+
+    /**
+     * Drops a reservation whose booking did not commit. Its bits cannot simply be cleared, because
+     * a reload may have marked the same ticks for a booking committed on another node, so the day
+     * is rebuilt from the database with the other in-flight reservations marked again.
+     */
+    public void cancelReservation(UUID doctorId, ZonedDateTime appointmentDateTime) {
+        DoctorAvailability doctor = doctors.get(doctorId);
+        if (doctor == null) {
+            return;
+        }
+        removeReservation(doctorId, doctor, appointmentDateTime);
+        appointmentReleased(doctorId, appointmentDateTime);
+    }
+
+    public void appointmentBooked(UUID doctorId, ZonedDateTime appointmentDateTime, int durationMinutes) {
+        DoctorAvailability doctor = doctors.get(doctorId);
+        if (doctor == null) {
+            return;
+        }
+        doctor.version.incrementAndGet();
+        ZonedDateTime local = appointmentDateTime.withZoneSameInstant(zone);
+        DayOccupancy occupancy = doctor.days.get(local.toLocalDate());
+        if (occupancy != null) {
+            occupy(occupancy, local, durationMinutes);
+        }
+    }
+
+    /**
+     * Releasing cannot simply clear bits because another appointment may overlap the same ticks,
+     * so the day is dropped and rebuilt from the database on next access.
+     */
+    public void appointmentReleased(UUID doctorId, ZonedDateTime appointmentDateTime) {
+        DoctorAvailability doctor = doctors.get(doctorId);
+        if (doctor == null) {
+            return;
+        }
+        doctor.version.incrementAndGet();
+        doctor.days.remove(appointmentDateTime.withZoneSameInstant(zone).toLocalDate());
+    }
+
+    public void scheduleChanged(UUID doctorId) {
+        DoctorAvailability doctor = doctors.get(doctorId);
+        if (doctor == null) {
+            return;
+        }
+        doctor.version.incrementAndGet();
+        doctor.weeklySlotStarts.set(null);
+    }
+
+    public void evict(UUID doctorId) {
+        DoctorAvailability doctor = doctors.remove(doctorId);
+        if (doctor != null) {
+            doctor.version.incrementAndGet();
+        }
+    }
+
+    public void evictAll() {
+        doctors.keySet().forEach(this::evict);
+    }
+
+    /**
+     * Drops doctors nobody asked about for {@code idle-ttl} and the past days of the others.
+     */
+    @Scheduled(fixedDelayString = "${scheduling.availability.eviction-interval:5m}")
+    public void evictIdle() {
+        long idleSince = System.nanoTime() - idleTtl.toNanos();
+        LocalDate today = LocalDate.now(zone);
+        doctors.forEach((doctorId, doctor) -> {
+            if (doctor.lastAccess - idleSince < 0) {
+                evict(doctorId);
+            } else {
+                doctor.days.keySet().removeIf(day -> day.isBefore(today));
+            }
+        });
+    }
+
+    // Entries are only created for existing doctors, so random ids cannot grow the map
+    private DoctorAvailability doctor(UUID doctorId) {
+        DoctorAvailability doctor = doctors.get(doctorId);
+        if (doctor == null) {
+            if (!doctorRepository.existsById(doctorId)) {
+                throw new ResourceNotFoundException("Doctor not found with id: " + doctorId);
+            }
+            if (doctors.size() >= maxDoctors) {
+                evictLeastRecentlyUsed();
+            }
+            doctor = doctors.computeIfAbsent(doctorId, id -> new DoctorAvailability());
+        }
+        doctor.lastAccess = System.nanoTime();
+        return doctor;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        UUID oldest = null;
+        long oldestAccess = 0;
+        for (Map.Entry<UUID, DoctorAvailability> entry : doctors.entrySet()) {
+            if (!entry.getValue().reservations.isEmpty()) {
+                continue;
+            }
+            long lastAccess = entry.getValue().lastAccess;
+            if (oldest == null || lastAccess - oldestAccess < 0) {
+                oldest = entry.getKey();
+                oldestAccess = lastAccess;
+            }
+        }
+        if (oldest != null) {
+            evict(oldest);
+        }
+    }
+
+    private int[][] weeklySlotStarts(UUID doctorId, DoctorAvailability doctor) {
+        int[][] cached = doctor.weeklySlotStarts.get();
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = doctor.version.get();
+        int[][] loaded = buildWeeklySlotStarts(scheduleRepository.findByDoctorId(doctorId));
+        if (doctor.weeklySlotStarts.compareAndSet(null, loaded) && doctor.version.get() != version) {
+            doctor.weeklySlotStarts.compareAndSet(loaded, null);
+        }
+        return loaded;
+    }
+
+    private DayOccupancy occupancy(UUID doctorId, DoctorAvailability doctor, LocalDate date) {
+        DayOccupancy cached = doctor.days.get(date);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = doctor.version.get();
+        ZonedDateTime start = date.atStartOfDay(zone);
+        ZonedDateTime end = date.plusDays(1).atStartOfDay(zone).minusNanos(1);
+
+        DayOccupancy loaded = new DayOccupancy();
+        for (Appointment appointment : appointmentRepository.findDoctorAppointmentsForDay(doctorId, start, end)) {
+            if (blocksSlot(appointment.getStatus())) {
+                occupy(loaded, appointment.getAppointmentDateTime().withZoneSameInstant(zone),
+                        durationMinutes(appointment.getDurationMinutes()));
+            }
+        }
+        return cache(doctorId, doctor, date, loaded, version);
+    }
+
+    private Map<LocalDate, DayOccupancy> loadOccupancies(UUID doctorId, DoctorAvailability doctor,
+                                                         LocalDate from, LocalDate to) {
+        long version = doctor.version.get();
+        Map<LocalDate, DayOccupancy> loaded = new HashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            loaded.put(date, new DayOccupancy());
+        }
+
+        ZonedDateTime start = from.atStartOfDay(zone);
+        ZonedDateTime end = to.plusDays(1).atStartOfDay(zone);
+        for (Appointment appointment : appointmentRepository.findDoctorAppointmentsInRange(doctorId, start, end)) {
+            if (blocksSlot(appointment.getStatus())) {
+                ZonedDateTime local = appointment.getAppointmentDateTime().withZoneSameInstant(zone);
+                occupy(loaded.get(local.toLocalDate()), local, durationMinutes(appointment.getDurationMinutes()));
+            }
+        }
+
+        loaded.replaceAll((date, occupancy) -> cache(doctorId, doctor, date, occupancy, version));
+        return loaded;
+    }
+
+    private DayOccupancy cache(UUID doctorId, DoctorAvailability doctor, LocalDate date, DayOccupancy loaded,
+                               long version) {
+        LocalDate today = LocalDate.now(zone);
+        if (date.isBefore(today) || date.isAfter(today.plusDays(cacheHorizonDays))) {
+            return loaded;
+        }
+
+        doctor.days.keySet().removeIf(day -> day.isBefore(today));
+        DayOccupancy previous;
+        ReentrantLock lock = lock(doctorId);
+        lock.lock();
+        try {
+            // Reservations whose bookings have not committed yet are not in the database
+            Map<Integer, Integer> reservations = doctor.reservations.get(date);
+            if (reservations != null) {
+                reservations.forEach(loaded::occupy);
+            }
+            previous = doctor.days.putIfAbsent(date, loaded);
+        } finally {
+            lock.unlock();
+        }
+        if (previous != null) {
+            return previous;
+        }
+        // A booking or release committed while we were reading: do not keep a possibly stale bitmap.
+        if (doctor.version.get() != version) {
+            doctor.days.remove(date, loaded);
+        }
+        return loaded;
+    }
+
+    private void removeReservation(UUID doctorId, DoctorAvailability doctor, ZonedDateTime appointmentDateTime) {
+        ZonedDateTime local = appointmentDateTime.withZoneSameInstant(zone);
+        Integer start = local.toLocalTime().toSecondOfDay() / 60;
+        ReentrantLock lock = lock(doctorId);
+        lock.lock();
+        try {
+            Map<Integer, Integer> reservations = doctor.reservations.get(local.toLocalDate());
+            if (reservations != null && reservations.remove(start) != null && reservations.isEmpty()) {
+                doctor.reservations.remove(local.toLocalDate());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lock(UUID doctorId) {
+        return reservationLocks[Math.floorMod(doctorId.hashCode(), reservationLocks.length)];
+    }
+
+    private static void occupy(DayOccupancy occupancy, ZonedDateTime localDateTime, int durationMinutes) {
+        occupancy.occupy(localDateTime.toLocalTime().toSecondOfDay() / 60, durationMinutes);
+    }
+
+    // Every slot the interval touches must be a slot start of the day's template
+    private static boolean coversScheduledSlots(int[] slotStarts, int start, int durationMinutes) {
+        if (durationMinutes <= 0) {
+            return false;
+        }
+        for (int slot = start; slot < start + durationMinutes; slot += SLOT_MINUTES) {
+            if (Arrays.binarySearch(slotStarts, slot) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] freeSlotStarts(int[] slotStarts, DayOccupancy occupancy) {
+        int[] free = new int[slotStarts.length];
+        int count = 0;
+        for (int start : slotStarts) {
+            if (occupancy.isFree(start, SLOT_MINUTES)) {
+                free[count++] = start;
+            }
+        }
+        return count == free.length ? free : Arrays.copyOf(free, count);
+    }
+
+    private static ReentrantLock[] newLocks(int stripes) {
+        ReentrantLock[] locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    public static boolean blocksSlot(AppointmentStatus status) {
+        return status != AppointmentStatus.CANCELLED;
+    }
+
+    /** Length of an appointment; one slot when not set yet, as the duration_minutes column defaults to. */
+    public static int durationMinutes(Integer durationMinutes) {
+        return durationMinutes != null ? durationMinutes : SLOT_MINUTES;
+    }
+
+    static int[][] buildWeeklySlotStarts(List<Schedule> schedules) {
+        List<List<Integer>> byDay = new ArrayList<>(8);
+        for (int day = 0; day <= 7; day++) {
+            byDay.add(new ArrayList<>());
+        }
+
+        for (Schedule schedule : schedules) {
+            if (schedule.getStatus() != ScheduleStatus.ACTIVE) {
+                continue;
+            }
+            int end = schedule.getEndTime().toSecondOfDay() / 60;
+            for (int start = schedule.getStartTime().toSecondOfDay() / 60; start + SLOT_MINUTES <= end; start += SLOT_MINUTES) {
+                byDay.get(schedule.getDayOfWeek()).add(start);
+            }
+        }
+
+        int[][] slotStarts = new int[8][];
+        for (int day = 0; day <= 7; day++) {
+            slotStarts[day] = byDay.get(day).stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        }
+        return slotStarts;
+    }
+}
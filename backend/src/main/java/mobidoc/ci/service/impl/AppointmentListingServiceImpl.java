@@ -0,0 +1,57 @@
+package mobidoc.ci.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import mobidoc.ci.dto.AppointmentDTO;
+import mobidoc.ci.dto.CursorPageDTO;
+import mobidoc.ci.mapper.AppointmentMapper;
+import mobidoc.ci.model.Appointment;
+import mobidoc.ci.repository.AppointmentRepository;
+import mobidoc.ci.repository.support.KeysetCursor;
+import mobidoc.ci.service.AppointmentListingService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AppointmentListingServiceImpl implements AppointmentListingService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentMapper appointmentMapper;
+
+    @Override
+    public CursorPageDTO<AppointmentDTO> getDoctorAppointments(UUID doctorId, String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Appointment> rows;
+        if (cursor == null) {
+            rows = appointmentRepository.findDoctorAppointmentsFirst(doctorId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = appointmentRepository.findDoctorAppointmentsBefore(doctorId, after.timestamp(), after.id(), limit);
+        }
+        return KeysetCursor.page(rows, pageSize, AppointmentListingServiceImpl::position, appointmentMapper::toDto);
+    }
+
+    @Override
+    public CursorPageDTO<AppointmentDTO> getPatientAppointments(UUID patientId, String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Appointment> rows;
+        if (cursor == null) {
+            rows = appointmentRepository.findPatientAppointmentsFirst(patientId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = appointmentRepository.findPatientAppointmentsBefore(patientId, after.timestamp(), after.id(), limit);
+        }
+        return KeysetCursor.page(rows, pageSize, AppointmentListingServiceImpl::position, appointmentMapper::toDto);
+    }
+
+    private static KeysetCursor position(Appointment appointment) {
+        return new KeysetCursor(appointment.getAppointmentDateTime(), appointment.getId());
+    }
+}
@@ -0,0 +1,98 @@
+package mobidoc.ci.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import mobidoc.ci.dto.AppointmentDTO;
+import mobidoc.ci.exception.ScheduleConflictException;
+import mobidoc.ci.service.AppointmentService;
+import mobidoc.ci.service.BookingService;
+import mobidoc.ci.service.availability.SlotAvailabilityEngine;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Books appointments through an in-memory slot reservation before the insert, with the
+ * ex_appointments_doctor_overlap exclusion constraint as backstop for reservations made on other nodes.
+ * No conflict query is issued: a booking is a single INSERT.
+ * <p>
+ * Deliberately not transactional: the appointment transaction has to commit inside the booking
+ * call so that exclusion constraint violations surface here and the reservation can be rolled back.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingServiceImpl implements BookingService {
+
+    private static final String OVERLAP_CONSTRAINT = "ex_appointments_doctor_overlap";
+
+    private final AppointmentService appointmentService;
+    private final SlotAvailabilityEngine slotAvailabilityEngine;
+
+    @Override
+    public AppointmentDTO bookAppointment(AppointmentDTO appointmentDTO) {
+        return withReservation(appointmentDTO, null, 0, () -> appointmentService.createAppointment(appointmentDTO));
+    }
+
+    @Override
+    public boolean hasConflicts(AppointmentDTO appointmentDTO) {
+        return !slotAvailabilityEngine.isSlotFree(appointmentDTO.getDoctorId(), appointmentDTO.getAppointmentDateTime(),
+                SlotAvailabilityEngine.durationMinutes(appointmentDTO.getDurationMinutes()));
+    }
+
+    @Override
+    public AppointmentDTO rescheduleAppointment(UUID id, AppointmentDTO appointmentDTO) {
+        AppointmentDTO current = appointmentService.getAppointmentById(id);
+        if (current.getDoctorId().equals(appointmentDTO.getDoctorId())
+                && current.getAppointmentDateTime().isEqual(appointmentDTO.getAppointmentDateTime())
+                && durationOf(current) == durationOf(appointmentDTO)) {
+            return appointmentService.rescheduleAppointment(id, appointmentDTO);
+        }
+        // Moving within the same doctor must not conflict with the appointment's own current slot
+        ZonedDateTime replacing = current.getDoctorId().equals(appointmentDTO.getDoctorId())
+                && SlotAvailabilityEngine.blocksSlot(current.getStatus())
+                ? current.getAppointmentDateTime()
+                : null;
+        return withReservation(appointmentDTO, replacing, durationOf(current),
+                () -> appointmentService.rescheduleAppointment(id, appointmentDTO));
+    }
+
+    private AppointmentDTO withReservation(AppointmentDTO appointmentDTO, ZonedDateTime replacing, int replacingMinutes,
+                                           Supplier<AppointmentDTO> booking) {
+        UUID doctorId = appointmentDTO.getDoctorId();
+        if (!slotAvailabilityEngine.reserve(doctorId, appointmentDTO.getAppointmentDateTime(), durationOf(appointmentDTO),
+                replacing, replacingMinutes)) {
+            throw new ScheduleConflictException("Time slot is already booked");
+        }
+
+        try {
+            AppointmentDTO booked = booking.get();
+            slotAvailabilityEngine.confirmReservation(doctorId, appointmentDTO.getAppointmentDateTime());
+            return booked;
+        } catch (DataIntegrityViolationException e) {
+            slotAvailabilityEngine.cancelReservation(doctorId, appointmentDTO.getAppointmentDateTime());
+            if (isOverlapViolation(e)) {
+                throw new ScheduleConflictException("Time slot is already booked");
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            slotAvailabilityEngine.cancelReservation(doctorId, appointmentDTO.getAppointmentDateTime());
+            throw e;
+        }
+    }
+
+    private static int durationOf(AppointmentDTO appointmentDTO) {
+        return SlotAvailabilityEngine.durationMinutes(appointmentDTO.getDurationMinutes());
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return OVERLAP_CONSTRAINT.equals(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+}
@@ -2,21 +2,30 @@ package mobidoc.ci.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import mobidoc.ci.dto.DoctorDTO;
+import mobidoc.ci.dto.DoctorSummaryDTO;
+import mobidoc.ci.dto.EarliestAvailabilityDTO;
 import mobidoc.ci.dto.ScheduleDTO;
 import mobidoc.ci.exception.ResourceNotFoundException;
 import mobidoc.ci.mapper.DoctorMapper;
 import mobidoc.ci.mapper.ScheduleMapper;
 import mobidoc.ci.model.Doctor;
 import mobidoc.ci.model.Schedule;
+import mobidoc.ci.model.enums.AppointmentStatus;
 import mobidoc.ci.repository.DoctorRepository;
 import mobidoc.ci.repository.ScheduleRepository;
+import mobidoc.ci.repository.projection.StatusCount;
 import mobidoc.ci.service.DoctorService;
+import mobidoc.ci.service.availability.EarliestSlotFinder;
+import mobidoc.ci.service.availability.SlotAvailabilityEngine;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -30,6 +39,8 @@ public class DoctorServiceImpl implements DoctorService {
     private final ScheduleRepository scheduleRepository;
     private final DoctorMapper doctorMapper;
     private final ScheduleMapper scheduleMapper;
+    private final SlotAvailabilityEngine slotAvailabilityEngine;
+    private final EarliestSlotFinder earliestSlotFinder;
 
     @Override
     public DoctorDTO createDoctor(DoctorDTO doctorDTO) {
@@ -71,6 +82,12 @@ public class DoctorServiceImpl implements DoctorService {
                 .map(doctorMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<DoctorSummaryDTO> getDoctorSummaries(Pageable pageable) {
+        return doctorRepository.findSummaries(pageable);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<DoctorDTO> getDoctorsBySpeciality(String speciality, Pageable pageable) {
@@ -102,12 +119,11 @@ public class DoctorServiceImpl implements DoctorService {
         Doctor doctor = doctorRepository.findById(doctorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
         
+        // Saving the schedule itself avoids merging the doctor, which would load every existing schedule
         Schedule schedule = scheduleMapper.toEntity(scheduleDTO);
         schedule.setDoctor(doctor);
-        doctor.addSchedule(schedule);
         
-        doctorRepository.save(doctor);
-        return scheduleMapper.toDto(schedule);
+        return scheduleMapper.toDto(scheduleRepository.save(schedule));
     }
 
     @Override
@@ -123,37 +139,60 @@ public class DoctorServiceImpl implements DoctorService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean isDoctorAvailable(UUID doctorId, LocalDate date) {
-        Doctor doctor = doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
-        
-        // Implement availability logic based on schedule and existing appointments
-        return true; // Placeholder implementation
+        return !getAvailableTimeSlots(doctorId, date).isEmpty();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<String> getAvailableTimeSlots(UUID doctorId, LocalDate date) {
-        Doctor doctor = doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
+        // Throws ResourceNotFoundException for unknown doctors
+        return slotAvailabilityEngine.getAvailableSlots(doctorId, date);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public EarliestAvailabilityDTO findEarliestAvailableBySpeciality(String speciality, int limit, long budgetMillis) {
+        List<UUID> doctorIds = doctorRepository.findIdsBySpeciality(speciality);
+        return earliestSlotFinder.find(speciality, doctorIds, ZonedDateTime.now(), limit, Duration.ofMillis(budgetMillis));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DoctorDTO getDoctorStatistics(UUID doctorId) {
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new ResourceNotFoundException("Doctor not found with id: " + doctorId);
+        }
         
-        // Implement time slot calculation logic based on schedule and existing appointments
-        return List.of(); // Placeholder implementation
+        List<StatusCount> counts = doctorRepository.findAppointmentCountsByStatus(doctorId);
+        DoctorDTO stats = new DoctorDTO();
+        stats.setId(doctorId);
+        stats.setTotalAppointments(counts.stream().mapToLong(StatusCount::getCount).sum());
+        stats.setCompletedAppointments(countFor(counts, AppointmentStatus.COMPLETED));
+        stats.setAverageRating(getAverageRating(doctorId));
+        return stats;
     }
 
     @Override
     @Transactional(readOnly = true)
     public long getCompletedAppointmentsCount(UUID doctorId) {
-        // Implement appointment counting logic
-        return 0; // Placeholder implementation
+        return countFor(doctorRepository.findAppointmentCountsByStatus(doctorId), AppointmentStatus.COMPLETED);
     }
 
     @Override
     @Transactional(readOnly = true)
     public double getAverageRating(UUID doctorId) {
-        // Implement rating calculation logic
-        return 0.0; // Placeholder implementation
+        // Appointments carry no rating yet, so there is nothing to aggregate
+        return 0.0;
+    }
+
+    private static long countFor(List<StatusCount> counts, AppointmentStatus status) {
+        return counts.stream()
+                .filter(count -> count.getStatus().equals(status.name()))
+                .mapToLong(StatusCount::getCount)
+                .findFirst()
+                .orElse(0);
     }
 
     @Override
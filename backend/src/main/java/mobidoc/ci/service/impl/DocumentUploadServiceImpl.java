@@ -0,0 +1,244 @@
+package mobidoc.ci.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mobidoc.ci.dto.DocumentDTO;
+import mobidoc.ci.dto.UploadSessionDTO;
+import mobidoc.ci.exception.InvalidUploadException;
+import mobidoc.ci.exception.ResourceNotFoundException;
+import mobidoc.ci.exception.UploadConflictException;
+import mobidoc.ci.mapper.DocumentMapper;
+import mobidoc.ci.mapper.UploadSessionMapper;
+import mobidoc.ci.model.Document;
+import mobidoc.ci.model.UploadSession;
+import mobidoc.ci.repository.PatientRepository;
+import mobidoc.ci.repository.UploadSessionRepository;
+import mobidoc.ci.service.DocumentUploadService;
+import mobidoc.ci.service.storage.DocumentStorage;
+import mobidoc.ci.service.storage.DocumentWriter;
+import mobidoc.ci.service.storage.StagedContent;
+import mobidoc.ci.service.storage.UploadByteBudget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable uploads: a session declares size and SHA-256, chunks are appended at the acknowledged offset
+ * to a part file, and completing the session verifies the file and hands it to the content-addressed
+ * document store.
+ * <p>
+ * Nothing here runs inside a transaction, so a chunk arriving over a slow link never holds a database
+ * connection; the offset is persisted with a conditional update once the chunk is on disk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DocumentUploadServiceImpl implements DocumentUploadService {
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final PatientRepository patientRepository;
+    private final DocumentStorage documentStorage;
+    private final DocumentWriter documentWriter;
+    private final UploadByteBudget byteBudget;
+    private final UploadSessionMapper uploadSessionMapper;
+    private final DocumentMapper documentMapper;
+
+    // Sessions with a chunk or completion in progress on this node
+    private final Set<UUID> busyUploads = ConcurrentHashMap.newKeySet();
+
+    @Value("${storage.uploads.root}")
+    private Path partsDirectory;
+
+    @Value("${storage.uploads.max-file-size:500MB}")
+    private DataSize maxFileSize;
+
+    @Value("${storage.uploads.max-chunk-size:8MB}")
+    private DataSize maxChunkSize;
+
+    @Value("${storage.uploads.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    @PostConstruct
+    void createPartsDirectory() throws IOException {
+        Files.createDirectories(partsDirectory);
+    }
+
+    @Override
+    public UploadSessionDTO createUpload(UUID patientId, UploadSessionDTO uploadDTO) {
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with id: " + patientId);
+        }
+        if (uploadDTO.getSizeBytes() > maxFileSize.toBytes()) {
+            throw new InvalidUploadException("Upload exceeds the maximum size of " + maxFileSize);
+        }
+        purgeExpiredUploads();
+
+        UploadSession session = UploadSession.builder()
+                .patient(patientRepository.getReferenceById(patientId))
+                .type(uploadDTO.getType())
+                .fileName(uploadDTO.getFileName())
+                .contentType(uploadDTO.getContentType())
+                .sizeBytes(uploadDTO.getSizeBytes())
+                .checksum(uploadDTO.getChecksum().toLowerCase())
+                .expiresAt(ZonedDateTime.now().plus(sessionTtl))
+                .build();
+        return uploadSessionMapper.toDto(uploadSessionRepository.save(session));
+    }
+
+    @Override
+    public UploadSessionDTO getUpload(UUID patientId, UUID uploadId) {
+        return uploadSessionMapper.toDto(findUpload(patientId, uploadId));
+    }
+
+    @Override
+    public UploadSessionDTO writeChunk(UUID patientId, UUID uploadId, long offset, long length, InputStream content) {
+        if (length <= 0 || length > maxChunkSize.toBytes()) {
+            throw new InvalidUploadException("Chunk length must be between 1 byte and " + maxChunkSize);
+        }
+        if (!busyUploads.add(uploadId)) {
+            throw new UploadConflictException("Another chunk of upload " + uploadId + " is in progress");
+        }
+
+        try {
+            // Read under the guard, so a retried chunk cannot pass the check against an offset acknowledged since
+            UploadSession session = findUpload(patientId, uploadId);
+            if (offset != session.getReceivedBytes()) {
+                throw new UploadConflictException("Upload " + uploadId + " continues at offset " + session.getReceivedBytes());
+            }
+            if (offset + length > session.getSizeBytes()) {
+                throw new InvalidUploadException("Chunk ends past the declared size of " + session.getSizeBytes() + " bytes");
+            }
+
+            try (UploadByteBudget.Permit permit = byteBudget.acquire(length);
+                 FileChannel part = FileChannel.open(partFile(uploadId), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // Drop whatever an interrupted chunk left past the persisted offset, then append sequentially
+                if (part.size() > offset) {
+                    part.truncate(offset);
+                }
+                IOException interrupted = null;
+                try {
+                    part.transferFrom(Channels.newChannel(content), offset, length);
+                } catch (IOException e) {
+                    interrupted = e;
+                }
+
+                // Acknowledge what reached the disk, even if the client went away mid-chunk
+                part.force(false);
+                long received = Math.min(part.size(), offset + length);
+                if (received > offset && uploadSessionRepository.updateReceivedBytes(uploadId, offset, received) == 0) {
+                    throw new UploadConflictException("Upload " + uploadId + " moved past offset " + offset
+                            + " while this chunk was written");
+                }
+                session.setReceivedBytes(received);
+                if (interrupted != null) {
+                    throw interrupted;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Chunk of upload " + uploadId + " was interrupted", e);
+            }
+            return uploadSessionMapper.toDto(session);
+        } finally {
+            busyUploads.remove(uploadId);
+        }
+    }
+
+    @Override
+    public DocumentDTO completeUpload(UUID patientId, UUID uploadId) {
+        if (!busyUploads.add(uploadId)) {
+            throw new UploadConflictException("Upload " + uploadId + " is already being processed");
+        }
+
+        try {
+            UploadSession session = findUpload(patientId, uploadId);
+            if (session.getReceivedBytes() != session.getSizeBytes()) {
+                throw new UploadConflictException("Upload " + uploadId + " has " + session.getReceivedBytes()
+                        + " of " + session.getSizeBytes() + " bytes");
+            }
+
+            StagedContent staged;
+            try {
+                staged = documentStorage.stage(partFile(uploadId));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not store upload " + uploadId, e);
+            }
+            if (!staged.checksum().equals(session.getChecksum())) {
+                // The part file is gone with the move, so a corrupt upload has to start over
+                documentStorage.discard(staged);
+                uploadSessionRepository.delete(session);
+                throw new InvalidUploadException("Checksum mismatch for upload " + uploadId + ", upload it again");
+            }
+
+            Document document = Document.builder()
+                    .patient(session.getPatient())
+                    .type(session.getType())
+                    .fileName(session.getFileName())
+                    .contentType(session.getContentType())
+                    .build();
+            try {
+                document = documentWriter.save(document, staged);
+            } catch (RuntimeException e) {
+                // The writer has discarded the staged file, so the session can only be resumed from the start
+                uploadSessionRepository.updateReceivedBytes(uploadId, session.getSizeBytes(), 0);
+                throw e;
+            }
+            uploadSessionRepository.delete(session);
+            return documentMapper.toDto(document);
+        } finally {
+            busyUploads.remove(uploadId);
+        }
+    }
+
+    @Override
+    public void abortUpload(UUID patientId, UUID uploadId) {
+        UploadSession session = findUpload(patientId, uploadId);
+        if (busyUploads.contains(uploadId)) {
+            throw new UploadConflictException("Upload " + uploadId + " is in progress");
+        }
+        uploadSessionRepository.delete(session);
+        deletePartFile(uploadId);
+    }
+
+    private UploadSession findUpload(UUID patientId, UUID uploadId) {
+        return uploadSessionRepository.findByIdAndPatientId(uploadId, patientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found with id: " + uploadId));
+    }
+
+    private void purgeExpiredUploads() {
+        for (UploadSession expired : uploadSessionRepository.findByExpiresAtBefore(ZonedDateTime.now())) {
+            if (!busyUploads.contains(expired.getId())) {
+                uploadSessionRepository.delete(expired);
+                deletePartFile(expired.getId());
+            }
+        }
+    }
+
+    private Path partFile(UUID uploadId) {
+        return partsDirectory.resolve(uploadId + ".part");
+    }
+
+    private void deletePartFile(UUID uploadId) {
+        try {
+            Files.deleteIfExists(partFile(uploadId));
+        } catch (IOException e) {
+            log.warn("Could not delete part file of upload {}", uploadId, e);
+        }
+    }
+}
@@ -1,25 +1,52 @@
 package mobidoc.ci.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import mobidoc.ci.dto.CursorPageDTO;
+import mobidoc.ci.dto.DocumentDTO;
 import mobidoc.ci.dto.MedicalRecordDTO;
+import mobidoc.ci.dto.MedicalTextMatchDTO;
 import mobidoc.ci.dto.PatientDTO;
+import mobidoc.ci.dto.PatientSummaryDTO;
 import mobidoc.ci.exception.ResourceNotFoundException;
+import mobidoc.ci.mapper.DocumentMapper;
 import mobidoc.ci.mapper.MedicalRecordMapper;
 import mobidoc.ci.mapper.PatientMapper;
 import mobidoc.ci.model.Document;
+import mobidoc.ci.model.DocumentRendition;
 import mobidoc.ci.model.MedicalRecord;
 import mobidoc.ci.model.Patient;
+import mobidoc.ci.model.enums.RenditionKind;
+import mobidoc.ci.repository.DocumentRenditionRepository;
 import mobidoc.ci.repository.DocumentRepository;
 import mobidoc.ci.repository.MedicalRecordRepository;
 import mobidoc.ci.repository.PatientRepository;
+import mobidoc.ci.repository.projection.MedicalTextMatch;
+import mobidoc.ci.repository.support.BulkWriter;
+import mobidoc.ci.repository.support.KeysetCursor;
 import mobidoc.ci.service.PatientService;
+import mobidoc.ci.service.storage.DocumentContent;
+import mobidoc.ci.service.storage.DocumentStorage;
+import mobidoc.ci.service.storage.DocumentWriter;
+import mobidoc.ci.service.storage.StagedContent;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,8 +57,16 @@ public class PatientServiceImpl implements PatientService {
     private final PatientRepository patientRepository;
     private final MedicalRecordRepository medicalRecordRepository;
     private final DocumentRepository documentRepository;
+    private final DocumentRenditionRepository documentRenditionRepository;
     private final PatientMapper patientMapper;
     private final MedicalRecordMapper medicalRecordMapper;
+    private final BulkWriter bulkWriter;
+    private final DocumentStorage documentStorage;
+    private final DocumentWriter documentWriter;
+    private final DocumentMapper documentMapper;
+
+    private static final int MIN_TRIGRAM_TERM_LENGTH = 3;
+    private static final Pattern PHONE_TERM = Pattern.compile("[+\\d\\s().-]*\\d[+\\d\\s().-]*");
 
     @Override
     public PatientDTO createPatient(PatientDTO patientDTO) {
@@ -73,11 +108,74 @@ public class PatientServiceImpl implements PatientService {
                 .map(patientMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PatientDTO> getAllPatients(String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Patient> rows;
+        if (cursor == null) {
+            rows = patientRepository.findFirstPatients(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = patientRepository.findPatientsBefore(after.timestamp(), after.id(), limit);
+        }
+        return KeysetCursor.page(rows, pageSize,
+                patient -> new KeysetCursor(patient.getCreatedAt(), patient.getId()), patientMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PatientSummaryDTO> getPatientSummaries(Pageable pageable) {
+        return patientRepository.findSummaries(pageable);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<PatientDTO> searchPatients(String searchTerm, Pageable pageable) {
-        return patientRepository.searchByName(searchTerm, pageable)
-                .map(patientMapper::toDto);
+        String term = normalizeSearchTerm(searchTerm);
+        if (term.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        
+        // Results are ordered by rank, so any client-supplied sort is dropped
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Patient> patients = term.length() < MIN_TRIGRAM_TERM_LENGTH
+                ? patientRepository.searchByNamePrefix(escapeLikePattern(term), page)
+                : patientRepository.search(escapeLikePattern(term), page);
+        return patients.map(patientMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<MedicalTextMatchDTO> searchMedicalText(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        
+        // One extra row tells whether another page exists without counting every match
+        int pageSize = pageable.getPageSize();
+        List<MedicalTextMatch> matches = patientRepository.searchMedicalText(query, pageSize + 1, pageable.getOffset());
+        boolean hasNext = matches.size() > pageSize;
+        List<MedicalTextMatchDTO> content = matches.stream()
+                .limit(pageSize)
+                .map(match -> new MedicalTextMatchDTO(match.getPatientId(), match.getMedicalRecordId(),
+                        match.getRank(), match.getSnippet()))
+                .collect(Collectors.toList());
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static String normalizeSearchTerm(String searchTerm) {
+        String term = searchTerm == null ? "" : searchTerm.strip();
+        if (PHONE_TERM.matcher(term).matches()) {
+            // Phone numbers are indexed as bare digits
+            return term.replaceAll("\\D", "");
+        }
+        return term.replaceAll("\\s+", " ");
+    }
+
+    private static String escapeLikePattern(String term) {
+        return term.replaceAll("([\\\\%_])", "\\\\$1");
     }
 
     @Override
@@ -104,12 +202,29 @@ public class PatientServiceImpl implements PatientService {
         Patient patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
         
+        // Saving the record itself avoids merging the patient, which would load every existing record
         MedicalRecord record = medicalRecordMapper.toEntity(recordDTO);
         record.setPatient(patient);
-        patient.addMedicalRecord(record);
         
-        patientRepository.save(patient);
-        return medicalRecordMapper.toDto(record);
+        return medicalRecordMapper.toDto(medicalRecordRepository.save(record));
+    }
+
+    @Override
+    public List<MedicalRecordDTO> addMedicalRecords(UUID patientId, List<MedicalRecordDTO> recordDTOs) {
+        Patient patient = patientRepository.findById(patientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
+        
+        List<MedicalRecord> records = recordDTOs.stream()
+                .map(recordDTO -> {
+                    MedicalRecord record = medicalRecordMapper.toEntity(recordDTO);
+                    record.setPatient(patient);
+                    return record;
+                })
+                .collect(Collectors.toList());
+        
+        return bulkWriter.persistAll(records).stream()
+                .map(medicalRecordMapper::toDto)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -138,31 +253,77 @@ public class PatientServiceImpl implements PatientService {
     }
 
     @Override
-    public void addDocument(UUID patientId, String documentType, byte[] content) {
-        Patient patient = patientRepository.findById(patientId)
-                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
-        
-        Document document = new Document();
-        document.setPatient(patient);
-        document.setType(documentType);
-        document.setContent(content);
-        
-        documentRepository.save(document);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DocumentDTO addDocument(UUID patientId, String documentType, String fileName, String contentType,
+                                   InputStream content) {
+        // Streamed to the store outside any transaction, so slow uploads do not pin a database connection
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with id: " + patientId);
+        }
+        StagedContent staged;
+        try {
+            staged = documentStorage.stage(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store document for patient " + patientId, e);
+        }
+
+        Document document = Document.builder()
+                .patient(patientRepository.getReferenceById(patientId))
+                .type(documentType)
+                .fileName(fileName)
+                .contentType(contentType)
+                .build();
+        return documentMapper.toDto(documentWriter.save(document, staged));
     }
 
     @Override
     public void deleteDocument(UUID patientId, UUID documentId) {
-        if (!documentRepository.existsById(documentId)) {
-            throw new ResourceNotFoundException("Document not found with id: " + documentId);
+        Document document = documentRepository.findByIdAndPatientId(documentId, patientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found with id: " + documentId));
+        documentRepository.delete(document);
+
+        // Content-addressed files are released by the blob trigger and reclaimed by the sweeper;
+        // only files stored before deduplication belong to a single document
+        String key = document.getFileUrl();
+        if (document.getChecksum() == null || !key.equals(documentStorage.keyOf(document.getChecksum()))) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    documentStorage.delete(key);
+                }
+            });
         }
-        documentRepository.deleteById(documentId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public byte[] getDocument(UUID documentId) {
-        Document document = documentRepository.findById(documentId)
+    public DocumentContent getDocument(UUID patientId, UUID documentId) {
+        Document document = documentRepository.findByIdAndPatientId(documentId, patientId)
                 .orElseThrow(() -> new ResourceNotFoundException("Document not found with id: " + documentId));
-        return document.getContent();
+        return new DocumentContent(documentStorage.load(document.getFileUrl()), document.getFileName(),
+                document.getContentType(), document.getChecksum());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DocumentDTO> getPatientDocuments(UUID patientId) {
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with id: " + patientId);
+        }
+        return documentRepository.findByPatientIdOrderByCreatedAtDesc(patientId).stream()
+                .map(documentMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DocumentContent getDocumentPreview(UUID patientId, UUID documentId, RenditionKind kind) {
+        DocumentRendition rendition = documentRenditionRepository
+                .findByDocumentIdAndDocumentPatientIdAndKind(documentId, patientId, kind)
+                .orElseThrow(() -> new ResourceNotFoundException("No " + kind.name().toLowerCase()
+                        + " available for document: " + documentId));
+        String fileName = StringUtils.stripFilenameExtension(rendition.getDocument().getFileName()) + ".jpg";
+        return new DocumentContent(documentStorage.load(documentStorage.keyOf(rendition.getChecksum())), fileName,
+                rendition.getContentType(), rendition.getChecksum());
     }
-}
\ No newline at end of file
+}
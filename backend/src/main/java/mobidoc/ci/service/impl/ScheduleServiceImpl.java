@@ -1,7 +1,11 @@
 package mobidoc.ci.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import mobidoc.ci.dto.AvailabilityCalendarDTO;
+import mobidoc.ci.dto.DayAvailabilityDTO;
+import mobidoc.ci.dto.ScheduleConflictDTO;
 import mobidoc.ci.dto.ScheduleDTO;
+import mobidoc.ci.dto.WeeklyScheduleUpdateDTO;
 import mobidoc.ci.exception.ResourceNotFoundException;
 import mobidoc.ci.exception.ScheduleConflictException;
 import mobidoc.ci.mapper.ScheduleMapper;
@@ -10,13 +14,21 @@ import mobidoc.ci.model.Schedule;
 import mobidoc.ci.model.enums.ScheduleStatus;
 import mobidoc.ci.repository.DoctorRepository;
 import mobidoc.ci.repository.ScheduleRepository;
+import mobidoc.ci.repository.support.BulkWriter;
 import mobidoc.ci.service.ScheduleService;
+import mobidoc.ci.service.availability.SlotAvailabilityEngine;
+import mobidoc.ci.service.schedule.ScheduleIntervalIndex;
+import mobidoc.ci.service.schedule.WeeklyScheduleDiff;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -29,6 +41,11 @@ public class ScheduleServiceImpl implements ScheduleService {
     private final ScheduleRepository scheduleRepository;
     private final DoctorRepository doctorRepository;
     private final ScheduleMapper scheduleMapper;
+    private final SlotAvailabilityEngine slotAvailabilityEngine;
+    private final BulkWriter bulkWriter;
+
+    @Value("${scheduling.availability.max-calendar-days:62}")
+    private int maxCalendarDays;
 
     @Override
     public ScheduleDTO createSchedule(UUID doctorId, ScheduleDTO scheduleDTO) {
@@ -53,8 +70,10 @@ public class ScheduleServiceImpl implements ScheduleService {
         Schedule schedule = scheduleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Schedule not found with id: " + id));
 
-        if (!isTimeSlotAvailable(schedule.getDoctor().getId(), scheduleDTO.getDayOfWeek(),
-                               scheduleDTO.getStartTime(), scheduleDTO.getEndTime())) {
+        boolean overlapsOtherSchedule = scheduleRepository.findOverlappingSchedules(schedule.getDoctor().getId(),
+                        scheduleDTO.getDayOfWeek(), scheduleDTO.getStartTime(), scheduleDTO.getEndTime()).stream()
+                .anyMatch(other -> !other.getId().equals(id));
+        if (overlapsOtherSchedule) {
             throw new ScheduleConflictException("Time slot is not available");
         }
 
@@ -114,29 +133,45 @@ public class ScheduleServiceImpl implements ScheduleService {
     @Override
     @Transactional(readOnly = true)
     public boolean isTimeSlotAvailable(UUID doctorId, Integer dayOfWeek, LocalTime startTime, LocalTime endTime) {
-        List<Schedule> overlappingSchedules = scheduleRepository.findOverlappingSchedules(doctorId, dayOfWeek, startTime);
+        List<Schedule> overlappingSchedules = scheduleRepository.findOverlappingSchedules(doctorId, dayOfWeek, startTime, endTime);
         return overlappingSchedules.isEmpty();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<String> getAvailableSlots(UUID doctorId, LocalDate date) {
-        int dayOfWeek = date.getDayOfWeek().getValue();
-        List<Schedule> schedules = scheduleRepository.findByDoctorIdAndDayOfWeek(doctorId, dayOfWeek);
-        
-        List<String> availableSlots = new ArrayList<>();
-        schedules.stream()
-                .filter(s -> s.getStatus() == ScheduleStatus.ACTIVE)
-                .forEach(schedule -> {
-                    LocalTime currentTime = schedule.getStartTime();
-                    while (currentTime.plusMinutes(30).isBefore(schedule.getEndTime()) || 
-                           currentTime.plusMinutes(30).equals(schedule.getEndTime())) {
-                        availableSlots.add(currentTime.toString());
-                        currentTime = currentTime.plusMinutes(30);
-                    }
-                });
-        
-        return availableSlots;
+        return slotAvailabilityEngine.getAvailableSlots(doctorId, date);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public AvailabilityCalendarDTO getAvailabilityCalendar(UUID doctorId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxCalendarDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxCalendarDays + " days");
+        }
+
+        List<DayAvailabilityDTO> days = slotAvailabilityEngine.getAvailableSlotStarts(doctorId, from, to)
+                .entrySet().stream()
+                .map(day -> new DayAvailabilityDTO(day.getKey(), day.getValue()))
+                .collect(Collectors.toList());
+
+        AvailabilityCalendarDTO calendar = new AvailabilityCalendarDTO();
+        calendar.setDoctorId(doctorId);
+        calendar.setFrom(from);
+        calendar.setTo(to);
+        calendar.setSlotMinutes(SlotAvailabilityEngine.SLOT_MINUTES);
+        calendar.setDays(days);
+        return calendar;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScheduleConflictDTO> validateWeeklySchedule(UUID doctorId, List<ScheduleDTO> weeklySchedule) {
+        return ScheduleIntervalIndex.of(scheduleRepository.findByDoctorId(doctorId))
+                .findConflicts(weeklySchedule);
     }
 
     @Override
@@ -144,6 +179,31 @@ public class ScheduleServiceImpl implements ScheduleService {
         Doctor doctor = doctorRepository.findById(doctorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
 
+        requireNoConflicts(validateWeeklySchedule(doctorId, weeklySchedule));
+        saveWeeklySchedule(doctor, weeklySchedule);
+    }
+
+    @Override
+    public WeeklyScheduleUpdateDTO updateWeeklySchedule(UUID doctorId, List<ScheduleDTO> weeklySchedule) {
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
+
+        // Existing schedules are replaced, so the new week only has to be consistent with itself
+        requireNoConflicts(ScheduleIntervalIndex.empty().findConflicts(weeklySchedule));
+
+        WeeklyScheduleDiff diff = WeeklyScheduleDiff.compute(scheduleRepository.findByDoctorId(doctorId), weeklySchedule);
+        if (!diff.getDeleted().isEmpty()) {
+            // One DELETE statement; it bypasses entity events, so refresh availability explicitly after commit
+            scheduleRepository.deleteAllInBatch(diff.getDeleted());
+            afterCommit(() -> slotAvailabilityEngine.scheduleChanged(doctorId));
+        }
+        saveWeeklySchedule(doctor, diff.getInserted());
+
+        return new WeeklyScheduleUpdateDTO(diff.getUnchanged(), diff.getUpdated().size(),
+                diff.getInserted().size(), diff.getDeleted().size());
+    }
+
+    private void saveWeeklySchedule(Doctor doctor, List<ScheduleDTO> weeklySchedule) {
         List<Schedule> schedules = weeklySchedule.stream()
                 .map(scheduleDTO -> {
                     Schedule schedule = scheduleMapper.toEntity(scheduleDTO);
@@ -153,16 +213,22 @@ public class ScheduleServiceImpl implements ScheduleService {
                 })
                 .collect(Collectors.toList());
 
-        scheduleRepository.saveAll(schedules);
+        bulkWriter.persistAll(schedules);
     }
 
-    @Override
-    public void updateWeeklySchedule(UUID doctorId, List<ScheduleDTO> weeklySchedule) {
-        // Delete existing schedules
-        List<Schedule> existingSchedules = scheduleRepository.findByDoctorId(doctorId);
-        scheduleRepository.deleteAll(existingSchedules);
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 
-        // Create new schedules
-        createWeeklySchedule(doctorId, weeklySchedule);
+    private static void requireNoConflicts(List<ScheduleConflictDTO> conflicts) {
+        if (!conflicts.isEmpty()) {
+            throw new ScheduleConflictException("Weekly schedule has " + conflicts.size() + " conflict(s): "
+                    + conflicts.stream().map(ScheduleConflictDTO::toString).collect(Collectors.joining("; ")));
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package mobidoc.ci.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import mobidoc.ci.dto.UserCountDTO;
 import mobidoc.ci.dto.UserDTO;
 import mobidoc.ci.exception.ResourceNotFoundException;
 import mobidoc.ci.mapper.UserMapper;
@@ -14,7 +15,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -68,10 +71,23 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public Page<UserDTO> getUsersByRole(UserRole role, Pageable pageable) {
-        // This would require adding a findByRole method to the repository
-        return userRepository.findAll(pageable)
-                .map(userMapper::toDto)
-                .filter(user -> user.getRole() == role);
+        return userRepository.findByRole(role, pageable)
+                .map(userMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserDTO> getUsersByRoleAndStatus(UserRole role, UserStatus status, Pageable pageable) {
+        return userRepository.findByRoleAndStatus(role, status, pageable)
+                .map(userMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserCountDTO> getUserCounts() {
+        return userRepository.countByRoleAndStatus().stream()
+                .map(count -> new UserCountDTO(count.getRole(), count.getStatus(), count.getCount()))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -0,0 +1,182 @@
+package mobidoc.ci.service.processing;
+
+import lombok.extern.slf4j.Slf4j;
+import mobidoc.ci.model.Document;
+import mobidoc.ci.model.DocumentJob;
+import mobidoc.ci.model.DocumentRendition;
+import mobidoc.ci.model.enums.DocumentJobStatus;
+import mobidoc.ci.model.enums.DocumentProcessingStatus;
+import mobidoc.ci.repository.DocumentJobRepository;
+import mobidoc.ci.repository.DocumentRepository;
+import mobidoc.ci.service.storage.DocumentStorage;
+import mobidoc.ci.service.storage.DocumentWriter;
+import mobidoc.ci.service.storage.StagedContent;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs the {@code document_jobs} queue: thumbnails, previews and metadata for newly stored documents.
+ * <p>
+ * Jobs are claimed with {@code FOR UPDATE SKIP LOCKED} and a lease, only as many as there are idle workers,
+ * so several nodes share the queue and a job claimed by a node that died is picked up again when its lease
+ * runs out. Rendering happens outside any transaction; renditions, metadata and the removal of the job
+ * commit together. Failures are retried with exponential backoff up to {@code max-attempts}.
+ */
+@Slf4j
+@Component
+public class DocumentProcessingQueue {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final DocumentJobRepository documentJobRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentStorage documentStorage;
+    private final DocumentWriter documentWriter;
+    private final DocumentRenderer documentRenderer;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final Semaphore idleWorkers;
+
+    @Value("${storage.documents.processing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.documents.processing.lease:10m}")
+    private Duration lease;
+
+    @Value("${storage.documents.processing.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${storage.documents.processing.retry-delay:1m}")
+    private Duration retryDelay;
+
+    public DocumentProcessingQueue(DocumentJobRepository documentJobRepository,
+                                   DocumentRepository documentRepository,
+                                   DocumentStorage documentStorage,
+                                   DocumentWriter documentWriter,
+                                   DocumentRenderer documentRenderer,
+                                   TransactionTemplate transactionTemplate,
+                                   @Qualifier("documentProcessingExecutor") ExecutorService workers,
+                                   @Value("${storage.documents.processing.workers:2}") int workerCount) {
+        this.documentJobRepository = documentJobRepository;
+        this.documentRepository = documentRepository;
+        this.documentStorage = documentStorage;
+        this.documentWriter = documentWriter;
+        this.documentRenderer = documentRenderer;
+        this.transactionTemplate = transactionTemplate;
+        this.workers = workers;
+        this.idleWorkers = new Semaphore(workerCount);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.documents.processing.poll-interval:2s}")
+    public void poll() {
+        int idle = idleWorkers.availablePermits();
+        if (!enabled || idle == 0) {
+            return;
+        }
+        List<UUID> claimed = transactionTemplate.execute(status -> {
+            ZonedDateTime now = ZonedDateTime.now();
+            List<DocumentJob> due = documentJobRepository.lockDue(now, idle);
+            for (DocumentJob job : due) {
+                job.setLockedUntil(now.plus(lease));
+                job.setAttempts(job.getAttempts() + 1);
+            }
+            return due.stream().map(DocumentJob::getId).toList();
+        });
+
+        for (UUID jobId : claimed) {
+            // Only this thread takes permits, so the ones counted above are still free
+            idleWorkers.acquireUninterruptibly();
+            workers.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    idleWorkers.release();
+                }
+            });
+        }
+    }
+
+    private void run(UUID jobId) {
+        DocumentJob job = documentJobRepository.findWithDocumentById(jobId).orElse(null);
+        if (job == null) {
+            // The document was deleted meanwhile
+            return;
+        }
+        try {
+            process(job);
+        } catch (Exception e) {
+            log.warn("Processing of document {} failed (attempt {})", job.getDocument().getId(), job.getAttempts(), e);
+            fail(jobId, e);
+        }
+    }
+
+    private void process(DocumentJob job) throws IOException {
+        Document document = job.getDocument();
+        Path file = documentStorage.load(document.getFileUrl()).getFile().toPath();
+        RenderedDocument rendered = documentRenderer.render(file, document.getContentType());
+
+        List<StagedContent> staged = new ArrayList<>();
+        try {
+            for (RenderedDocument.Rendition rendition : rendered.renditions()) {
+                staged.add(documentStorage.stage(new ByteArrayInputStream(rendition.content())));
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                Document current = documentRepository.findById(document.getId()).orElse(null);
+                if (current == null) {
+                    return;
+                }
+                current.setProcessingStatus(rendered.status());
+                current.setPageCount(rendered.pageCount());
+                current.setWidth(rendered.width());
+                current.setHeight(rendered.height());
+                current.setTitle(rendered.title());
+                current.setAuthor(rendered.author());
+                for (int i = 0; i < staged.size(); i++) {
+                    RenderedDocument.Rendition rendition = rendered.renditions().get(i);
+                    documentWriter.saveRendition(DocumentRendition.builder()
+                            .document(current)
+                            .kind(rendition.kind())
+                            .contentType("image/jpeg")
+                            .width(rendition.width())
+                            .height(rendition.height())
+                            .build(), staged.get(i));
+                }
+                documentJobRepository.deleteById(job.getId());
+            });
+        } finally {
+            staged.forEach(documentStorage::discard);
+        }
+    }
+
+    private void fail(UUID jobId, Exception error) {
+        transactionTemplate.executeWithoutResult(status -> documentJobRepository.findWithDocumentById(jobId)
+                .ifPresent(job -> {
+                    job.setLockedUntil(null);
+                    job.setLastError(truncate(String.valueOf(error)));
+                    if (job.getAttempts() >= maxAttempts) {
+                        job.setStatus(DocumentJobStatus.FAILED);
+                        job.getDocument().setProcessingStatus(DocumentProcessingStatus.FAILED);
+                    } else {
+                        job.setRunAfter(ZonedDateTime.now().plus(retryDelay.multipliedBy(1L << (job.getAttempts() - 1))));
+                    }
+                }));
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,182 @@
+package mobidoc.ci.service.processing;
+
+import mobidoc.ci.model.enums.DocumentProcessingStatus;
+import mobidoc.ci.model.enums.RenditionKind;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Extracts metadata from images and PDFs and renders their JPEG thumbnail and preview.
+ * <p>
+ * Images are decoded with source subsampling, so a large scan never materialises at full resolution,
+ * and PDFs only have their first page rasterised. The original is never modified: an oversized image
+ * gets a recompressed preview next to it instead.
+ */
+@Component
+class DocumentRenderer {
+
+    private static final int MAX_TITLE_LENGTH = 500;
+    private static final int MAX_AUTHOR_LENGTH = 255;
+
+    @Value("${storage.documents.processing.thumbnail-size:256}")
+    private int thumbnailSize;
+
+    @Value("${storage.documents.processing.preview-size:1280}")
+    private int previewSize;
+
+    // Images above this size get a preview even when their dimensions are small
+    @Value("${storage.documents.processing.recompress-above:1MB}")
+    private DataSize recompressAbove;
+
+    @Value("${storage.documents.processing.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    RenderedDocument render(Path file, String contentType) throws IOException {
+        if (contentType == null) {
+            return RenderedDocument.unsupported();
+        }
+        if (contentType.equals("application/pdf")) {
+            return renderPdf(file);
+        }
+        if (contentType.startsWith("image/")) {
+            return renderImage(file);
+        }
+        return RenderedDocument.unsupported();
+    }
+
+    private RenderedDocument renderImage(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return RenderedDocument.unsupported();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / previewSize);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+
+                List<RenderedDocument.Rendition> renditions = new ArrayList<>();
+                renditions.add(rendition(RenditionKind.THUMBNAIL, image, thumbnailSize));
+                if (Math.max(width, height) > previewSize || Files.size(file) > recompressAbove.toBytes()) {
+                    renditions.add(rendition(RenditionKind.PREVIEW, image, previewSize));
+                }
+                return new RenderedDocument(DocumentProcessingStatus.PROCESSED, null, width, height, null, null,
+                        renditions);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private RenderedDocument renderPdf(Path file) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(file.toFile())) {
+            int pageCount = pdf.getNumberOfPages();
+            if (pageCount == 0) {
+                return RenderedDocument.unsupported();
+            }
+            PDRectangle page = pdf.getPage(0).getCropBox();
+            float scale = previewSize / Math.max(page.getWidth(), page.getHeight());
+            BufferedImage firstPage = new PDFRenderer(pdf).renderImage(0, scale, ImageType.RGB);
+
+            PDDocumentInformation information = pdf.getDocumentInformation();
+            return new RenderedDocument(DocumentProcessingStatus.PROCESSED, pageCount, null, null,
+                    truncate(information.getTitle(), MAX_TITLE_LENGTH),
+                    truncate(information.getAuthor(), MAX_AUTHOR_LENGTH),
+                    List.of(rendition(RenditionKind.THUMBNAIL, firstPage, thumbnailSize),
+                            rendition(RenditionKind.PREVIEW, firstPage, previewSize)));
+        } catch (InvalidPasswordException e) {
+            // Opening requires the user password, so there is nothing we can show
+            return RenderedDocument.unsupported();
+        }
+    }
+
+    private RenderedDocument.Rendition rendition(RenditionKind kind, BufferedImage image, int maxSize)
+            throws IOException {
+        BufferedImage scaled = scale(image, maxSize);
+        return new RenderedDocument.Rendition(kind, jpeg(scaled), scaled.getWidth(), scaled.getHeight());
+    }
+
+    // Halves the image until close to the target size, so bilinear filtering does not alias on large factors
+    private static BufferedImage scale(BufferedImage image, int maxSize) {
+        double factor = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * factor));
+
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return draw(current, targetWidth, targetHeight);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            // JPEG has no alpha channel, so transparent areas are flattened onto white
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] jpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.strip();
+        return trimmed.length() > maxLength ? trimmed.substring(0, maxLength) : trimmed;
+    }
+}
@@ -0,0 +1,20 @@
+package mobidoc.ci.service.processing;
+
+import mobidoc.ci.model.enums.DocumentProcessingStatus;
+import mobidoc.ci.model.enums.RenditionKind;
+
+import java.util.List;
+
+/**
+ * What processing learned about a document: its metadata and the JPEG renditions to store.
+ */
+record RenderedDocument(DocumentProcessingStatus status, Integer pageCount, Integer width, Integer height,
+                        String title, String author, List<Rendition> renditions) {
+
+    static RenderedDocument unsupported() {
+        return new RenderedDocument(DocumentProcessingStatus.UNSUPPORTED, null, null, null, null, null, List.of());
+    }
+
+    record Rendition(RenditionKind kind, byte[] content, int width, int height) {
+    }
+}
@@ -0,0 +1,159 @@
+package mobidoc.ci.service.schedule;
+
+import mobidoc.ci.dto.ScheduleConflictDTO;
+import mobidoc.ci.dto.ScheduleDTO;
+import mobidoc.ci.model.Schedule;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Overlap index over one doctor's schedules, grouped by day of week and ordered by start time.
+ * <p>
+ * Stored schedules are not assumed to be disjoint: several may share a start time or nest inside each other.
+ * Each day keeps its schedules sorted by start together with the running maximum of their end times, so a
+ * probe binary-searches both bounds and scans only the schedules between the first one whose running end
+ * reaches past the probe start and the last one starting before the probe end. Checking a batch of n
+ * candidates needs no further database access.
+ */
+public final class ScheduleIntervalIndex {
+
+    private static final Comparator<ScheduleDTO> BY_START = Comparator.comparing(ScheduleDTO::getStartTime);
+
+    private static final Comparator<Schedule> BY_START_AND_ID = Comparator.comparing(Schedule::getStartTime)
+            .thenComparing(Schedule::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<Integer, Day> byDay = new TreeMap<>();
+
+    private ScheduleIntervalIndex() {
+    }
+
+    public static ScheduleIntervalIndex of(Collection<Schedule> schedules) {
+        Map<Integer, List<Schedule>> grouped = new TreeMap<>();
+        for (Schedule schedule : schedules) {
+            grouped.computeIfAbsent(schedule.getDayOfWeek(), day -> new ArrayList<>()).add(schedule);
+        }
+
+        ScheduleIntervalIndex index = new ScheduleIntervalIndex();
+        grouped.forEach((day, daySchedules) -> index.byDay.put(day, new Day(daySchedules)));
+        return index;
+    }
+
+    public static ScheduleIntervalIndex empty() {
+        return new ScheduleIntervalIndex();
+    }
+
+    public List<Schedule> findOverlapping(Integer dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        requireValidRange(startTime, endTime);
+        Day day = byDay.get(dayOfWeek);
+        return day == null ? List.of() : day.findOverlapping(startTime, endTime);
+    }
+
+    /**
+     * Every overlap of the candidates with the indexed schedules and with each other.
+     */
+    public List<ScheduleConflictDTO> findConflicts(Collection<ScheduleDTO> candidates) {
+        Map<Integer, List<ScheduleDTO>> candidatesByDay = new TreeMap<>();
+        for (ScheduleDTO candidate : candidates) {
+            requireValidRange(candidate.getStartTime(), candidate.getEndTime());
+            candidatesByDay.computeIfAbsent(candidate.getDayOfWeek(), day -> new ArrayList<>()).add(candidate);
+        }
+
+        List<ScheduleConflictDTO> conflicts = new ArrayList<>();
+        candidatesByDay.forEach((day, dayCandidates) -> {
+            dayCandidates.sort(BY_START);
+            ScheduleDTO latestEnding = null;
+            for (ScheduleDTO candidate : dayCandidates) {
+                if (latestEnding != null && latestEnding.getEndTime().isAfter(candidate.getStartTime())) {
+                    conflicts.add(new ScheduleConflictDTO(day, candidate.getStartTime(), candidate.getEndTime(),
+                            null, latestEnding.getStartTime(), latestEnding.getEndTime()));
+                }
+                if (latestEnding == null || candidate.getEndTime().isAfter(latestEnding.getEndTime())) {
+                    latestEnding = candidate;
+                }
+
+                for (Schedule existing : findOverlapping(day, candidate.getStartTime(), candidate.getEndTime())) {
+                    conflicts.add(new ScheduleConflictDTO(day, candidate.getStartTime(), candidate.getEndTime(),
+                            existing.getId(), existing.getStartTime(), existing.getEndTime()));
+                }
+            }
+        });
+        return conflicts;
+    }
+
+    private static void requireValidRange(LocalTime startTime, LocalTime endTime) {
+        if (startTime == null || endTime == null || !endTime.isAfter(startTime)) {
+            throw new IllegalArgumentException("Schedule end time must be after start time");
+        }
+    }
+
+    /**
+     * One day's schedules sorted by (start, id), with {@code maxEnd[i]} the latest end among the first i + 1.
+     */
+    private static final class Day {
+
+        private final Schedule[] schedules;
+        private final LocalTime[] maxEnd;
+
+        Day(List<Schedule> daySchedules) {
+            schedules = daySchedules.toArray(Schedule[]::new);
+            Arrays.sort(schedules, BY_START_AND_ID);
+            maxEnd = new LocalTime[schedules.length];
+            LocalTime latest = LocalTime.MIN;
+            for (int i = 0; i < schedules.length; i++) {
+                if (schedules[i].getEndTime().isAfter(latest)) {
+                    latest = schedules[i].getEndTime();
+                }
+                maxEnd[i] = latest;
+            }
+        }
+
+        List<Schedule> findOverlapping(LocalTime startTime, LocalTime endTime) {
+            // Nothing before 'from' ends after the probe start; nothing from 'to' on starts before the probe end
+            int from = firstEndingAfter(startTime);
+            int to = firstStartingAtOrAfter(endTime);
+
+            List<Schedule> overlapping = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                if (schedules[i].getEndTime().isAfter(startTime)) {
+                    overlapping.add(schedules[i]);
+                }
+            }
+            return overlapping;
+        }
+
+        private int firstEndingAfter(LocalTime time) {
+            int low = 0;
+            int high = maxEnd.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (maxEnd[mid].isAfter(time)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        private int firstStartingAtOrAfter(LocalTime time) {
+            int low = 0;
+            int high = schedules.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (schedules[mid].getStartTime().isBefore(time)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
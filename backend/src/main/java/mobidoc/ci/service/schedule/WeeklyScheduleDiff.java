@@ -0,0 +1,96 @@
+package mobidoc.ci.service.schedule;
+
+import lombok.Getter;
+import mobidoc.ci.dto.ScheduleDTO;
+import mobidoc.ci.model.Schedule;
+import mobidoc.ci.model.enums.ScheduleStatus;
+
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Difference between a doctor's stored schedules and a replacement week.
+ * <p>
+ * Rows matching an incoming entry on (dayOfWeek, startTime, endTime) are kept as they are. Leftover rows
+ * on a day that still has leftover entries are reused by moving their times, so only the true surplus is
+ * deleted or inserted. Updates are applied to the managed entities directly.
+ */
+@Getter
+public final class WeeklyScheduleDiff {
+
+    private static final Comparator<Schedule> SCHEDULE_BY_START = Comparator.comparing(Schedule::getStartTime);
+    private static final Comparator<ScheduleDTO> DTO_BY_START = Comparator.comparing(ScheduleDTO::getStartTime);
+
+    private int unchanged;
+    private final List<Schedule> updated = new ArrayList<>();
+    private final List<ScheduleDTO> inserted = new ArrayList<>();
+    private final List<Schedule> deleted = new ArrayList<>();
+
+    private WeeklyScheduleDiff() {
+    }
+
+    public static WeeklyScheduleDiff compute(List<Schedule> existing, List<ScheduleDTO> incoming) {
+        WeeklyScheduleDiff diff = new WeeklyScheduleDiff();
+
+        Map<SlotKey, Deque<Schedule>> existingByKey = new LinkedHashMap<>();
+        for (Schedule schedule : existing) {
+            existingByKey.computeIfAbsent(SlotKey.of(schedule), key -> new ArrayDeque<>()).add(schedule);
+        }
+
+        Map<Integer, List<ScheduleDTO>> unmatchedByDay = new TreeMap<>();
+        for (ScheduleDTO scheduleDTO : incoming) {
+            Deque<Schedule> matches = existingByKey.get(SlotKey.of(scheduleDTO));
+            Schedule match = matches == null ? null : matches.poll();
+            if (match == null) {
+                unmatchedByDay.computeIfAbsent(scheduleDTO.getDayOfWeek(), day -> new ArrayList<>()).add(scheduleDTO);
+            } else if (match.getStatus() != ScheduleStatus.ACTIVE) {
+                match.setStatus(ScheduleStatus.ACTIVE);
+                diff.updated.add(match);
+            } else {
+                diff.unchanged++;
+            }
+        }
+
+        Map<Integer, List<Schedule>> leftoverByDay = new HashMap<>();
+        existingByKey.values().forEach(schedules -> schedules.forEach(schedule ->
+                leftoverByDay.computeIfAbsent(schedule.getDayOfWeek(), day -> new ArrayList<>()).add(schedule)));
+
+        unmatchedByDay.forEach((day, scheduleDTOs) -> {
+            List<Schedule> reusable = leftoverByDay.getOrDefault(day, new ArrayList<>());
+            reusable.sort(SCHEDULE_BY_START);
+            scheduleDTOs.sort(DTO_BY_START);
+            for (ScheduleDTO scheduleDTO : scheduleDTOs) {
+                if (reusable.isEmpty()) {
+                    diff.inserted.add(scheduleDTO);
+                    continue;
+                }
+                Schedule schedule = reusable.remove(0);
+                schedule.setStartTime(scheduleDTO.getStartTime());
+                schedule.setEndTime(scheduleDTO.getEndTime());
+                schedule.setStatus(ScheduleStatus.ACTIVE);
+                diff.updated.add(schedule);
+            }
+        });
+        leftoverByDay.values().forEach(diff.deleted::addAll);
+        return diff;
+    }
+
+    private record SlotKey(Integer dayOfWeek, LocalTime startTime, LocalTime endTime) {
+
+        static SlotKey of(Schedule schedule) {
+            return new SlotKey(schedule.getDayOfWeek(), schedule.getStartTime(), schedule.getEndTime());
+        }
+
+        static SlotKey of(ScheduleDTO scheduleDTO) {
+            return new SlotKey(scheduleDTO.getDayOfWeek(), scheduleDTO.getStartTime(), scheduleDTO.getEndTime());
+        }
+    }
+}
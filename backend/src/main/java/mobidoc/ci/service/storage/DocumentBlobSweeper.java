@@ -0,0 +1,61 @@
+package mobidoc.ci.service.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mobidoc.ci.model.DocumentBlob;
+import mobidoc.ci.repository.DocumentBlobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Deletes stored content nobody references any more.
+ * <p>
+ * Each batch locks unreferenced blobs older than the grace period, deletes their files and then their rows
+ * in the same transaction. An upload of the same content blocks on the row lock meanwhile and, once it gets
+ * through, finds the file gone and publishes its own copy. Several nodes can sweep at once since locked rows
+ * are skipped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentBlobSweeper {
+
+    private final DocumentBlobRepository documentBlobRepository;
+    private final DocumentStorage documentStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${storage.documents.orphan-grace:1h}")
+    private Duration orphanGrace;
+
+    @Value("${storage.documents.sweep-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${storage.documents.sweep-interval:15m}",
+            initialDelayString = "${storage.documents.sweep-interval:15m}")
+    public void sweep() {
+        ZonedDateTime before = ZonedDateTime.now().minus(orphanGrace);
+        int total = 0;
+        int swept;
+        do {
+            swept = transactionTemplate.execute(status -> {
+                List<DocumentBlob> orphans = documentBlobRepository.lockOrphans(before, batchSize);
+                for (DocumentBlob orphan : orphans) {
+                    documentStorage.delete(documentStorage.keyOf(orphan.getChecksum()));
+                }
+                documentBlobRepository.deleteAllInBatch(orphans);
+                return orphans.size();
+            });
+            total += swept;
+        } while (swept == batchSize);
+
+        if (total > 0) {
+            log.info("Reclaimed {} unreferenced document blobs", total);
+        }
+    }
+}
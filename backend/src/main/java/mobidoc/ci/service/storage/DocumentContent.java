@@ -0,0 +1,9 @@
+package mobidoc.ci.service.storage;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * A stored document ready to be streamed, with the metadata needed for the response headers.
+ */
+public record DocumentContent(Resource resource, String fileName, String contentType, String checksum) {
+}
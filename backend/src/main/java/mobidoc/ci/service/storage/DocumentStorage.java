@@ -0,0 +1,37 @@
+package mobidoc.ci.service.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Content-addressed store for document content, keyed by SHA-256. Content is streamed in and out,
+ * never held in memory as a whole, and each distinct content is kept once.
+ * <p>
+ * Writing is two-phase: {@link #stage} hashes the content into a private file, {@link #publish} makes it
+ * visible under its content address, or drops it when that content is already stored.
+ */
+public interface DocumentStorage {
+
+    StagedContent stage(InputStream content) throws IOException;
+
+    /**
+     * Stages a complete local file. The file is taken over and gone afterwards.
+     */
+    StagedContent stage(Path file) throws IOException;
+
+    /**
+     * Returns {@code true} when the content was new, {@code false} when an identical blob already existed.
+     */
+    boolean publish(StagedContent staged) throws IOException;
+
+    void discard(StagedContent staged);
+
+    String keyOf(String checksum);
+
+    Resource load(String key);
+
+    void delete(String key);
+}
@@ -0,0 +1,57 @@
+package mobidoc.ci.service.storage;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import mobidoc.ci.repository.DocumentBlobRepository;
+import mobidoc.ci.repository.projection.BlobStatistics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Publishes how much the content-addressed store saves, from a periodic aggregate over
+ * {@code document_blobs} rather than a query per scrape.
+ */
+@Component
+public class DocumentStoreMetrics {
+
+    private final DocumentBlobRepository documentBlobRepository;
+    private final AtomicReference<BlobStatistics> statistics = new AtomicReference<>();
+
+    public DocumentStoreMetrics(DocumentBlobRepository documentBlobRepository, MeterRegistry meterRegistry) {
+        this.documentBlobRepository = documentBlobRepository;
+        Gauge.builder("document.store.logical.bytes", this, m -> m.value(BlobStatistics::getLogicalBytes))
+                .baseUnit("bytes")
+                .description("Size of all stored documents, counting shared content once per document")
+                .register(meterRegistry);
+        Gauge.builder("document.store.physical.bytes", this, m -> m.value(BlobStatistics::getPhysicalBytes))
+                .baseUnit("bytes")
+                .description("Size of the distinct content kept for referenced documents")
+                .register(meterRegistry);
+        Gauge.builder("document.store.saved.bytes", this,
+                        m -> m.value(BlobStatistics::getLogicalBytes) - m.value(BlobStatistics::getPhysicalBytes))
+                .baseUnit("bytes")
+                .description("Bytes saved by storing identical content once")
+                .register(meterRegistry);
+        Gauge.builder("document.store.dedup.ratio", this, DocumentStoreMetrics::dedupRatio)
+                .description("Logical over physical document bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.documents.metrics-interval:5m}")
+    public void refresh() {
+        statistics.set(documentBlobRepository.statistics());
+    }
+
+    private double dedupRatio() {
+        double physical = value(BlobStatistics::getPhysicalBytes);
+        return physical == 0 ? 1.0 : value(BlobStatistics::getLogicalBytes) / physical;
+    }
+
+    private double value(Function<BlobStatistics, Long> metric) {
+        BlobStatistics current = statistics.get();
+        return current == null ? Double.NaN : metric.apply(current);
+    }
+}
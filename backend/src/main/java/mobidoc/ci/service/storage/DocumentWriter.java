@@ -0,0 +1,98 @@
+package mobidoc.ci.service.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import mobidoc.ci.model.Document;
+import mobidoc.ci.model.DocumentRendition;
+import mobidoc.ci.repository.DocumentBlobRepository;
+import mobidoc.ci.repository.DocumentRenditionRepository;
+import mobidoc.ci.repository.DocumentRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Saves a document or one of its renditions together with its staged content.
+ * <p>
+ * The row is flushed first: the insert trigger upserts the {@code document_blobs} row and keeps it locked
+ * until commit, so publishing the file cannot race the orphan sweeper or another upload of the same content.
+ * If the transaction rolls back after a new file was published, the file is registered as an orphan
+ * and reclaimed by the sweeper after its grace period.
+ */
+@Component
+@RequiredArgsConstructor
+public class DocumentWriter {
+
+    private final DocumentRepository documentRepository;
+    private final DocumentRenditionRepository documentRenditionRepository;
+    private final DocumentBlobRepository documentBlobRepository;
+    private final DocumentStorage documentStorage;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional
+    public Document save(Document document, StagedContent staged) {
+        document.setFileUrl(staged.key());
+        document.setSizeBytes(staged.size());
+        document.setChecksum(staged.checksum());
+        try {
+            Document saved = documentRepository.saveAndFlush(document);
+            publish(staged);
+            return saved;
+        } finally {
+            documentStorage.discard(staged);
+        }
+    }
+
+    @Transactional
+    public DocumentRendition saveRendition(DocumentRendition rendition, StagedContent staged) {
+        rendition.setChecksum(staged.checksum());
+        rendition.setSizeBytes(staged.size());
+        try {
+            DocumentRendition saved = documentRenditionRepository.saveAndFlush(rendition);
+            publish(staged);
+            return saved;
+        } finally {
+            documentStorage.discard(staged);
+        }
+    }
+
+    // Called with the blob row locked by the flushed insert
+    private void publish(StagedContent staged) {
+        boolean created;
+        try {
+            created = documentStorage.publish(staged);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not publish document content " + staged.key(), e);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    recordWrite(created, staged.size());
+                } else if (created) {
+                    documentBlobRepository.registerOrphan(staged.checksum(), staged.size());
+                }
+            }
+        });
+    }
+
+    private void recordWrite(boolean created, long size) {
+        Counter.builder("document.store.writes")
+                .tag("result", created ? "stored" : "deduplicated")
+                .description("Contents written to the content-addressed store")
+                .register(meterRegistry)
+                .increment();
+        if (!created) {
+            Counter.builder("document.store.deduplicated.bytes")
+                    .baseUnit("bytes")
+                    .description("Bytes not written because identical content was already stored")
+                    .register(meterRegistry)
+                    .increment(size);
+        }
+    }
+}
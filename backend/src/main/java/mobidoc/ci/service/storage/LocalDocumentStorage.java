@@ -0,0 +1,140 @@
+package mobidoc.ci.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import mobidoc.ci.exception.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Document store on the local file system.
+ * <p>
+ * Content is hashed while it streams into a private file under {@code .incoming}, then atomically moved
+ * to {@code <aa>/<bb>/<sha256>}, so a reader never sees a partial file and equal content is stored once.
+ * Downloads are served as {@link FileSystemResource}s, which Spring MVC streams and slices for Range requests.
+ */
+@Slf4j
+@Component
+public class LocalDocumentStorage implements DocumentStorage {
+
+    private final Path root;
+    private final Path incoming;
+
+    public LocalDocumentStorage(@Value("${storage.documents.root}") Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.incoming = Files.createDirectories(this.root.resolve(".incoming"));
+    }
+
+    @Override
+    public StagedContent stage(InputStream content) throws IOException {
+        Path temporary = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temporary)) {
+                size = in.transferTo(out);
+            }
+            return staged(temporary, size, digest);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    @Override
+    public StagedContent stage(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        long size;
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            size = in.transferTo(OutputStream.nullOutputStream());
+        }
+        Path temporary = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            Files.move(file, temporary, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Different file system: copy into the store volume so that publishing stays a rename
+            Files.copy(file, temporary, StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(file);
+        }
+        return staged(temporary, size, digest);
+    }
+
+    @Override
+    public boolean publish(StagedContent staged) throws IOException {
+        Path target = resolve(staged.key());
+        if (Files.exists(target)) {
+            Files.deleteIfExists(staged.file());
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(staged.file(), target, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    @Override
+    public void discard(StagedContent staged) {
+        try {
+            Files.deleteIfExists(staged.file());
+        } catch (IOException e) {
+            log.warn("Could not delete staged content {}", staged.file(), e);
+        }
+    }
+
+    @Override
+    public String keyOf(String checksum) {
+        return checksum.substring(0, 2) + "/" + checksum.substring(2, 4) + "/" + checksum;
+    }
+
+    @Override
+    public Resource load(String key) {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Document content not found: " + key);
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            log.warn("Could not delete document content {}", key, e);
+        }
+    }
+
+    private StagedContent staged(Path file, long size, MessageDigest digest) {
+        String checksum = HexFormat.of().formatHex(digest.digest());
+        return new StagedContent(file, keyOf(checksum), size, checksum);
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.startsWith(incoming)) {
+            throw new IllegalArgumentException("Invalid document key: " + key);
+        }
+        return path;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
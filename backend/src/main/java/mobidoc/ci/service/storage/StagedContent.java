@@ -0,0 +1,10 @@
+package mobidoc.ci.service.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Content written to a private file in the store but not yet visible: its content address (key),
+ * length in bytes and hex SHA-256 digest.
+ */
+public record StagedContent(Path file, String key, long size, String checksum) {
+}
@@ -0,0 +1,63 @@
+package mobidoc.ci.service.storage;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import mobidoc.ci.exception.UploadCapacityExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global budget of upload bytes in flight, counted in KiB permits.
+ * <p>
+ * Every chunk is charged at least {@code min-chunk-charge}, which also caps the number of request threads
+ * that can sit in uploads at once. When the budget is exhausted callers wait up to {@code acquire-timeout}
+ * and are then turned away with 503, so an upload storm backs off instead of taking the threads and heap
+ * the booking endpoints need.
+ */
+@Component
+public class UploadByteBudget {
+
+    private final Semaphore permits;
+    private final int capacity;
+    private final long minimumCharge;
+    private final Duration acquireTimeout;
+
+    public UploadByteBudget(@Value("${storage.uploads.max-in-flight:64MB}") DataSize maxInFlight,
+                            @Value("${storage.uploads.min-chunk-charge:1MB}") DataSize minimumCharge,
+                            @Value("${storage.uploads.acquire-timeout:2s}") Duration acquireTimeout,
+                            MeterRegistry meterRegistry) {
+        this.capacity = (int) maxInFlight.toKilobytes();
+        // Fair, so that large chunks are not starved by a stream of small ones
+        this.permits = new Semaphore(capacity, true);
+        this.minimumCharge = minimumCharge.toBytes();
+        this.acquireTimeout = acquireTimeout;
+        Gauge.builder("document.uploads.in.flight", () -> (capacity - permits.availablePermits()) * 1024L)
+                .baseUnit("bytes")
+                .description("Upload bytes currently admitted by the upload budget")
+                .register(meterRegistry);
+    }
+
+    public Permit acquire(long bytes) {
+        int kilobytes = (int) Math.min(capacity, (Math.max(bytes, minimumCharge) + 1023) / 1024);
+        try {
+            if (!permits.tryAcquire(kilobytes, acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new UploadCapacityExceededException("Too many uploads in progress, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UploadCapacityExceededException("Interrupted while waiting for upload capacity");
+        }
+        return () -> permits.release(kilobytes);
+    }
+
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,72 @@
+-- Patient search: names, email and phone denormalized onto patients and trigram indexed
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() is only STABLE; pinning the dictionary makes it safe to use in index expressions
+CREATE OR REPLACE FUNCTION search_normalize(value TEXT)
+RETURNS TEXT AS $$
+    SELECT lower(public.unaccent('public.unaccent'::regdictionary, value));
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+ALTER TABLE patients
+    ADD COLUMN search_name TEXT,
+    ADD COLUMN search_text TEXT;
+
+CREATE OR REPLACE FUNCTION patient_search_columns(p_user_id UUID, OUT search_name TEXT, OUT search_text TEXT)
+AS $$
+    SELECT search_normalize(up.first_name || ' ' || up.last_name),
+           concat_ws(' ',
+                     search_normalize(up.first_name || ' ' || up.last_name),
+                     lower(u.email),
+                     nullif(regexp_replace(up.phone, '\D', '', 'g'), ''))
+    FROM users u
+    LEFT JOIN user_profiles up ON up.user_id = u.id
+    WHERE u.id = p_user_id;
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION set_patient_search_columns()
+RETURNS TRIGGER AS $$
+BEGIN
+    SELECT c.search_name, c.search_text INTO NEW.search_name, NEW.search_text
+    FROM patient_search_columns(NEW.user_id) c;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION refresh_patient_search_columns()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE patients p
+    SET search_name = c.search_name,
+        search_text = c.search_text
+    FROM patient_search_columns(CASE WHEN TG_TABLE_NAME = 'users' THEN NEW.id ELSE NEW.user_id END) c
+    WHERE p.user_id = CASE WHEN TG_TABLE_NAME = 'users' THEN NEW.id ELSE NEW.user_id END;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER set_patients_search_columns
+    BEFORE INSERT OR UPDATE OF user_id ON patients
+    FOR EACH ROW
+    EXECUTE FUNCTION set_patient_search_columns();
+
+CREATE TRIGGER refresh_patients_search_from_profile
+    AFTER INSERT OR UPDATE OF first_name, last_name, phone ON user_profiles
+    FOR EACH ROW
+    EXECUTE FUNCTION refresh_patient_search_columns();
+
+CREATE TRIGGER refresh_patients_search_from_user
+    AFTER UPDATE OF email ON users
+    FOR EACH ROW
+    EXECUTE FUNCTION refresh_patient_search_columns();
+
+UPDATE patients p
+SET search_name = c.search_name,
+    search_text = c.search_text
+FROM users u, LATERAL patient_search_columns(u.id) c
+WHERE u.id = p.user_id;
+
+-- Substring and similarity matches for terms of three characters or more
+CREATE INDEX idx_patients_search_text_trgm ON patients USING gin (search_text gin_trgm_ops);
+-- Shorter terms are answered as name prefixes
+CREATE INDEX idx_patients_search_name_prefix ON patients (search_name text_pattern_ops);
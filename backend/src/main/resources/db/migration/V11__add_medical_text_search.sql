@@ -0,0 +1,14 @@
+-- Full-text search over patient history, allergies and medical record descriptions
+ALTER TABLE patients
+    ADD COLUMN history_tsv TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(medical_history, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(allergies, '')), 'B')
+    ) STORED;
+
+ALTER TABLE medical_records
+    ADD COLUMN description_tsv TSVECTOR GENERATED ALWAYS AS (
+        to_tsvector('english', coalesce(description, ''))
+    ) STORED;
+
+CREATE INDEX idx_patients_history_tsv ON patients USING gin (history_tsv);
+CREATE INDEX idx_medical_records_description_tsv ON medical_records USING gin (description_tsv);
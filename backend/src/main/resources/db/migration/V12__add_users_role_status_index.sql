@@ -0,0 +1,2 @@
+-- Role and role/status listings seek on this index; per-role/status counts read it index-only
+CREATE INDEX idx_users_role_status ON users(role, status);
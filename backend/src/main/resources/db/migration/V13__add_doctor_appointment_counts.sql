@@ -0,0 +1,50 @@
+-- Per-doctor appointment counts by status, kept current by triggers so stats reads never scan appointments
+CREATE TABLE doctor_appointment_counts (
+    doctor_id UUID NOT NULL REFERENCES doctors(id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL,
+    appointment_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (doctor_id, status)
+);
+
+CREATE OR REPLACE FUNCTION add_doctor_appointment_count(p_doctor_id UUID, p_status VARCHAR, p_delta INT)
+RETURNS VOID AS $$
+    INSERT INTO doctor_appointment_counts (doctor_id, status, appointment_count)
+    VALUES (p_doctor_id, p_status, p_delta)
+    ON CONFLICT (doctor_id, status)
+        DO UPDATE SET appointment_count = doctor_appointment_counts.appointment_count + EXCLUDED.appointment_count;
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION track_doctor_appointment_counts()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM add_doctor_appointment_count(NEW.doctor_id, NEW.status, 1);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM add_doctor_appointment_count(OLD.doctor_id, OLD.status, -1);
+    -- Touch both rows in key order so concurrent opposite transitions cannot deadlock
+    ELSIF (OLD.doctor_id, OLD.status) < (NEW.doctor_id, NEW.status) THEN
+        PERFORM add_doctor_appointment_count(OLD.doctor_id, OLD.status, -1);
+        PERFORM add_doctor_appointment_count(NEW.doctor_id, NEW.status, 1);
+    ELSE
+        PERFORM add_doctor_appointment_count(NEW.doctor_id, NEW.status, 1);
+        PERFORM add_doctor_appointment_count(OLD.doctor_id, OLD.status, -1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER track_appointments_counts
+    AFTER INSERT OR DELETE ON appointments
+    FOR EACH ROW
+    EXECUTE FUNCTION track_doctor_appointment_counts();
+
+CREATE TRIGGER track_appointments_counts_on_change
+    AFTER UPDATE OF doctor_id, status ON appointments
+    FOR EACH ROW
+    WHEN (OLD.doctor_id IS DISTINCT FROM NEW.doctor_id OR OLD.status IS DISTINCT FROM NEW.status)
+    EXECUTE FUNCTION track_doctor_appointment_counts();
+
+INSERT INTO doctor_appointment_counts (doctor_id, status, appointment_count)
+SELECT doctor_id, status, count(*)
+FROM appointments
+GROUP BY doctor_id, status;
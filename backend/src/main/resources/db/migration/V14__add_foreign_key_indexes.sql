@@ -0,0 +1,16 @@
+-- Foreign keys without an index, each of which turned a per-row lookup into a sequential scan once the
+-- synthetic data set was loaded:
+--  * patients(user_id) and user_profiles(user_id): the V10 search triggers find the patient of a changed
+--    user or profile row, and the inverse one-to-one profile/doctor/patient fetches filter on user_id
+--  * doctors(user_id), schedules(doctor_id), medical_records(patient_id): the same fetches, plus the
+--    batched collection loads of doctor and patient pages
+--  * every column here: ON DELETE CASCADE from the parent, which otherwise scans the child per deleted row
+CREATE INDEX idx_user_profiles_user_id ON user_profiles(user_id);
+CREATE INDEX idx_doctors_user_id ON doctors(user_id);
+CREATE INDEX idx_patients_user_id ON patients(user_id);
+CREATE INDEX idx_schedules_doctor_id ON schedules(doctor_id);
+CREATE INDEX idx_medical_records_patient_id ON medical_records(patient_id);
+CREATE INDEX idx_consultations_appointment_id ON consultations(appointment_id);
+CREATE INDEX idx_prescriptions_consultation_id ON prescriptions(consultation_id);
+CREATE INDEX idx_prescription_items_prescription_id ON prescription_items(prescription_id);
+CREATE INDEX idx_invoices_payment_id ON invoices(payment_id);
@@ -0,0 +1,5 @@
+-- Metadata of the content held in the document store; file_url now carries the store key
+ALTER TABLE documents
+    ADD COLUMN content_type VARCHAR(255),
+    ADD COLUMN size_bytes BIGINT,
+    ADD COLUMN checksum VARCHAR(64);
@@ -0,0 +1,70 @@
+-- Content-addressed document blobs: one stored file per SHA-256, shared by every document with that content
+CREATE TABLE document_blobs (
+    checksum VARCHAR(64) PRIMARY KEY,
+    size_bytes BIGINT NOT NULL,
+    ref_count INT NOT NULL DEFAULT 0 CHECK (ref_count >= 0),
+    -- Set when the last reference goes away; the sweeper reclaims the file after a grace period
+    orphaned_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO document_blobs (checksum, size_bytes, ref_count)
+SELECT checksum, coalesce(max(size_bytes), 0), count(*)
+FROM documents
+WHERE checksum IS NOT NULL
+GROUP BY checksum;
+
+ALTER TABLE documents
+    ADD CONSTRAINT fk_document_blob FOREIGN KEY (checksum) REFERENCES document_blobs(checksum);
+
+CREATE INDEX idx_documents_checksum ON documents(checksum);
+CREATE INDEX idx_document_blobs_orphaned_at ON document_blobs(orphaned_at) WHERE ref_count = 0;
+
+-- BEFORE, so the blob row exists when the foreign key is checked
+CREATE OR REPLACE FUNCTION reference_document_blob()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.checksum IS NOT NULL THEN
+        INSERT INTO document_blobs (checksum, size_bytes, ref_count)
+        VALUES (NEW.checksum, coalesce(NEW.size_bytes, 0), 1)
+        ON CONFLICT (checksum)
+            DO UPDATE SET ref_count = document_blobs.ref_count + 1, orphaned_at = NULL;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION release_document_blob()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF OLD.checksum IS NOT NULL THEN
+        UPDATE document_blobs
+        SET ref_count = ref_count - 1,
+            orphaned_at = CASE WHEN ref_count = 1 THEN CURRENT_TIMESTAMP END
+        WHERE checksum = OLD.checksum;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER reference_documents_blob
+    BEFORE INSERT ON documents
+    FOR EACH ROW
+    EXECUTE FUNCTION reference_document_blob();
+
+CREATE TRIGGER reference_documents_blob_on_change
+    BEFORE UPDATE OF checksum ON documents
+    FOR EACH ROW
+    WHEN (OLD.checksum IS DISTINCT FROM NEW.checksum)
+    EXECUTE FUNCTION reference_document_blob();
+
+CREATE TRIGGER release_documents_blob
+    AFTER DELETE ON documents
+    FOR EACH ROW
+    EXECUTE FUNCTION release_document_blob();
+
+CREATE TRIGGER release_documents_blob_on_change
+    AFTER UPDATE OF checksum ON documents
+    FOR EACH ROW
+    WHEN (OLD.checksum IS DISTINCT FROM NEW.checksum)
+    EXECUTE FUNCTION release_document_blob();
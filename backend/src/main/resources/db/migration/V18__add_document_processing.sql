@@ -0,0 +1,83 @@
+-- Results of background document processing
+ALTER TABLE documents
+    ADD COLUMN processing_status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    ADD COLUMN page_count INT,
+    ADD COLUMN width_px INT,
+    ADD COLUMN height_px INT,
+    ADD COLUMN title VARCHAR(500),
+    ADD COLUMN author VARCHAR(255);
+
+-- Small renditions shown instead of the full file; content lives in the blob store like documents
+CREATE TABLE document_renditions (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+    document_id UUID NOT NULL REFERENCES documents(id) ON DELETE CASCADE,
+    kind VARCHAR(20) NOT NULL,
+    checksum VARCHAR(64) NOT NULL REFERENCES document_blobs(checksum),
+    content_type VARCHAR(255) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    width_px INT NOT NULL,
+    height_px INT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    created_by UUID REFERENCES users(id),
+    updated_by UUID REFERENCES users(id),
+    UNIQUE (document_id, kind)
+);
+
+CREATE INDEX idx_document_renditions_checksum ON document_renditions(checksum);
+
+CREATE TRIGGER reference_document_renditions_blob
+    BEFORE INSERT ON document_renditions
+    FOR EACH ROW
+    EXECUTE FUNCTION reference_document_blob();
+
+CREATE TRIGGER release_document_renditions_blob
+    AFTER DELETE ON document_renditions
+    FOR EACH ROW
+    EXECUTE FUNCTION release_document_blob();
+
+-- Persistent work queue: a row exists until its document has been processed or has failed for good
+CREATE TABLE document_jobs (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+    document_id UUID NOT NULL UNIQUE REFERENCES documents(id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    run_after TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Lease of the worker that claimed the job; an expired lease makes it claimable again
+    locked_until TIMESTAMP WITH TIME ZONE,
+    last_error TEXT,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    created_by UUID REFERENCES users(id),
+    updated_by UUID REFERENCES users(id)
+);
+
+CREATE INDEX idx_document_jobs_run_after ON document_jobs(run_after) WHERE status = 'PENDING';
+
+CREATE TRIGGER update_document_renditions_updated_at
+    BEFORE UPDATE ON document_renditions
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_document_jobs_updated_at
+    BEFORE UPDATE ON document_jobs
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Existing documents get their renditions too
+INSERT INTO document_jobs (document_id)
+SELECT id FROM documents;
+
+-- Enqueued in the inserting transaction, so the job becomes visible exactly when the document commits
+CREATE OR REPLACE FUNCTION enqueue_document_processing()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO document_jobs (document_id) VALUES (NEW.id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER enqueue_documents_processing
+    AFTER INSERT ON documents
+    FOR EACH ROW
+    EXECUTE FUNCTION enqueue_document_processing();
@@ -0,0 +1,50 @@
+-- Spread each doctor's per-status count over 16 rows picked by appointment id, so that concurrent bookings
+-- of one doctor do not all queue on the same counter row lock until commit. Readers sum the buckets.
+ALTER TABLE doctor_appointment_counts
+    ADD COLUMN bucket SMALLINT NOT NULL DEFAULT 0;
+
+ALTER TABLE doctor_appointment_counts
+    DROP CONSTRAINT doctor_appointment_counts_pkey,
+    ADD PRIMARY KEY (doctor_id, status, bucket);
+
+DROP FUNCTION add_doctor_appointment_count(UUID, VARCHAR, INT);
+
+CREATE OR REPLACE FUNCTION add_doctor_appointment_count(p_doctor_id UUID, p_status VARCHAR, p_bucket SMALLINT,
+                                                        p_delta INT)
+RETURNS VOID AS $$
+    INSERT INTO doctor_appointment_counts (doctor_id, status, bucket, appointment_count)
+    VALUES (p_doctor_id, p_status, p_bucket, p_delta)
+    ON CONFLICT (doctor_id, status, bucket)
+        DO UPDATE SET appointment_count = doctor_appointment_counts.appointment_count + EXCLUDED.appointment_count;
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION doctor_appointment_count_bucket(p_appointment_id UUID)
+RETURNS SMALLINT AS $$
+    SELECT (abs(hashtext(p_appointment_id::text)) % 16)::SMALLINT;
+$$ LANGUAGE sql IMMUTABLE;
+
+-- An appointment always maps to the same bucket, so a transition moves its count between two rows of that bucket
+CREATE OR REPLACE FUNCTION track_doctor_appointment_counts()
+RETURNS TRIGGER AS $$
+DECLARE
+    row_bucket SMALLINT;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM add_doctor_appointment_count(NEW.doctor_id, NEW.status, doctor_appointment_count_bucket(NEW.id), 1);
+        RETURN NULL;
+    END IF;
+
+    row_bucket := doctor_appointment_count_bucket(OLD.id);
+    IF TG_OP = 'DELETE' THEN
+        PERFORM add_doctor_appointment_count(OLD.doctor_id, OLD.status, row_bucket, -1);
+    -- Touch both rows in key order so concurrent opposite transitions cannot deadlock
+    ELSIF (OLD.doctor_id, OLD.status) < (NEW.doctor_id, NEW.status) THEN
+        PERFORM add_doctor_appointment_count(OLD.doctor_id, OLD.status, row_bucket, -1);
+        PERFORM add_doctor_appointment_count(NEW.doctor_id, NEW.status, row_bucket, 1);
+    ELSE
+        PERFORM add_doctor_appointment_count(NEW.doctor_id, NEW.status, row_bucket, 1);
+        PERFORM add_doctor_appointment_count(OLD.doctor_id, OLD.status, row_bucket, -1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
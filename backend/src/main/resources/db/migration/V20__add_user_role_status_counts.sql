@@ -0,0 +1,66 @@
+-- User counts by role and status, kept current by triggers so the admin counts never scan users.
+-- Unlike doctor_appointment_counts (V19) the rows are not spread over buckets: sign-ups and status
+-- changes are rare next to bookings, so contention on one row per role and status is not a concern.
+CREATE TABLE user_role_status_counts (
+    role VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    user_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (role, status)
+);
+
+CREATE OR REPLACE FUNCTION add_user_role_status_count(p_role VARCHAR, p_status VARCHAR, p_delta INT)
+RETURNS VOID AS $$
+    INSERT INTO user_role_status_counts (role, status, user_count)
+    VALUES (p_role, p_status, p_delta)
+    ON CONFLICT (role, status)
+        DO UPDATE SET user_count = user_role_status_counts.user_count + EXCLUDED.user_count;
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION track_user_role_status_counts()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM add_user_role_status_count(NEW.role, NEW.status, 1);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM add_user_role_status_count(OLD.role, OLD.status, -1);
+    -- Touch both rows in key order so concurrent opposite transitions cannot deadlock
+    ELSIF (OLD.role, OLD.status) < (NEW.role, NEW.status) THEN
+        PERFORM add_user_role_status_count(OLD.role, OLD.status, -1);
+        PERFORM add_user_role_status_count(NEW.role, NEW.status, 1);
+    ELSE
+        PERFORM add_user_role_status_count(NEW.role, NEW.status, 1);
+        PERFORM add_user_role_status_count(OLD.role, OLD.status, -1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER track_users_role_status_counts
+    AFTER INSERT OR DELETE ON users
+    FOR EACH ROW
+    EXECUTE FUNCTION track_user_role_status_counts();
+
+CREATE TRIGGER track_users_role_status_counts_on_change
+    AFTER UPDATE OF role, status ON users
+    FOR EACH ROW
+    WHEN (OLD.role IS DISTINCT FROM NEW.role OR OLD.status IS DISTINCT FROM NEW.status)
+    EXECUTE FUNCTION track_user_role_status_counts();
+
+-- TRUNCATE bypasses the row triggers, so it resets the counts as well
+CREATE OR REPLACE FUNCTION reset_user_role_status_counts()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM user_role_status_counts;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER reset_users_role_status_counts
+    AFTER TRUNCATE ON users
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION reset_user_role_status_counts();
+
+INSERT INTO user_role_status_counts (role, status, user_count)
+SELECT role, status, count(*)
+FROM users
+GROUP BY role, status;
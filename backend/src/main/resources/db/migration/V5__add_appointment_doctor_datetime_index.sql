@@ -0,0 +1,2 @@
+-- Supports per-doctor availability lookups over a date range
+CREATE INDEX idx_appointments_doctor_datetime ON appointments(doctor_id, appointment_datetime);
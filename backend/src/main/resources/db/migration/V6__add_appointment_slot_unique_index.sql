@@ -0,0 +1,4 @@
+-- Backstop against double booking: at most one live appointment per doctor and start time
+CREATE UNIQUE INDEX uq_appointments_doctor_slot
+    ON appointments(doctor_id, appointment_datetime)
+    WHERE status <> 'CANCELLED';
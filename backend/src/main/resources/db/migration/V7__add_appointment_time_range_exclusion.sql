@@ -0,0 +1,84 @@
+-- Appointment duration and time range, with overlap prevention enforced by the database
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE appointments
+    ADD COLUMN duration_minutes SMALLINT NOT NULL DEFAULT 30 CHECK (duration_minutes > 0),
+    ADD COLUMN time_range TSTZRANGE;
+
+-- timestamptz + interval is not immutable, so the range is kept by a trigger rather than a generated column
+CREATE OR REPLACE FUNCTION set_appointment_time_range()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.time_range = tstzrange(
+        NEW.appointment_datetime,
+        NEW.appointment_datetime + make_interval(mins => NEW.duration_minutes),
+        '[)');
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER set_appointments_time_range
+    BEFORE INSERT OR UPDATE OF appointment_datetime, duration_minutes ON appointments
+    FOR EACH ROW
+    EXECUTE FUNCTION set_appointment_time_range();
+
+UPDATE appointments
+SET time_range = tstzrange(appointment_datetime, appointment_datetime + make_interval(mins => duration_minutes), '[)');
+
+ALTER TABLE appointments ALTER COLUMN time_range SET NOT NULL;
+
+-- Live appointments that already overlap would make the constraint fail. Only upcoming SCHEDULED
+-- bookings are resolved here: each loses to any overlapping appointment that is not an upcoming booking,
+-- and otherwise to the one booked before it, walking in that order so a row only loses to a survivor.
+-- Overlaps involving past, completed or otherwise non-cancellable appointments abort the migration
+-- with their ids, so that they are resolved by hand instead of history being rewritten.
+DO $$
+DECLARE
+    kept RECORD;
+    unresolved TEXT;
+BEGIN
+    FOR kept IN
+        SELECT a.id, a.doctor_id, a.time_range, COALESCE(a.created_at, '-infinity') AS booked_at,
+               (a.status = 'SCHEDULED' AND a.appointment_datetime > now()) AS upcoming
+        FROM appointments a
+        WHERE a.status <> 'CANCELLED'
+          AND EXISTS (SELECT 1 FROM appointments b
+                      WHERE b.doctor_id = a.doctor_id
+                        AND b.id <> a.id
+                        AND b.status <> 'CANCELLED'
+                        AND b.time_range && a.time_range)
+        ORDER BY upcoming, booked_at, a.id
+    LOOP
+        CONTINUE WHEN (SELECT status FROM appointments WHERE id = kept.id) = 'CANCELLED';
+
+        UPDATE appointments b
+        SET status = 'CANCELLED',
+            cancel_reason = 'Overlapped appointment ' || kept.id || ' booked earlier'
+        WHERE b.doctor_id = kept.doctor_id
+          AND b.id <> kept.id
+          AND b.status = 'SCHEDULED'
+          AND b.appointment_datetime > now()
+          AND b.time_range && kept.time_range
+          AND (NOT kept.upcoming OR (COALESCE(b.created_at, '-infinity'), b.id) > (kept.booked_at, kept.id));
+    END LOOP;
+
+    SELECT string_agg(a.id || ' overlaps ' || b.id, ', ' ORDER BY a.id, b.id)
+    INTO unresolved
+    FROM appointments a
+    JOIN appointments b ON b.doctor_id = a.doctor_id AND a.id < b.id AND b.time_range && a.time_range
+    WHERE a.status <> 'CANCELLED'
+      AND b.status <> 'CANCELLED';
+
+    IF unresolved IS NOT NULL THEN
+        RAISE EXCEPTION 'Overlapping appointments must be resolved by hand before V7: %', unresolved;
+    END IF;
+END
+$$;
+
+ALTER TABLE appointments
+    ADD CONSTRAINT ex_appointments_doctor_overlap
+    EXCLUDE USING gist (doctor_id WITH =, time_range WITH &&)
+    WHERE (status <> 'CANCELLED');
+
+-- Superseded by the exclusion constraint, which also rejects partial overlaps
+DROP INDEX IF EXISTS uq_appointments_doctor_slot;
@@ -0,0 +1,31 @@
+-- Time-ordered (version 7) UUIDs for rows inserted outside the application
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+RETURNS UUID AS $$
+BEGIN
+    -- Overwrite the first 48 bits of a random v4 UUID with Unix milliseconds and flip the version to 7
+    RETURN encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::UUID;
+END;
+$$ language 'plpgsql' VOLATILE;
+
+DO $$
+DECLARE
+    id_column RECORD;
+BEGIN
+    FOR id_column IN
+        SELECT table_name
+        FROM information_schema.columns
+        WHERE table_schema = current_schema()
+          AND column_name = 'id'
+          AND column_default = 'uuid_generate_v4()'
+    LOOP
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT uuid_generate_v7()', id_column.table_name);
+    END LOOP;
+END $$;
@@ -0,0 +1,6 @@
+-- Keyset pagination seeks on (timestamp, id); the doctor index supersedes the V5 one
+CREATE INDEX idx_appointments_doctor_datetime_id ON appointments(doctor_id, appointment_datetime, id);
+CREATE INDEX idx_appointments_patient_datetime_id ON appointments(patient_id, appointment_datetime, id);
+CREATE INDEX idx_patients_created_at_id ON patients(created_at, id);
+
+DROP INDEX IF EXISTS idx_appointments_doctor_datetime;
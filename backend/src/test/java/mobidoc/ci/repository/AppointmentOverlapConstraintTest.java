@@ -0,0 +1,335 @@
+package mobidoc.ci.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The ex_appointments_doctor_overlap exclusion constraint (V7), exercised on an embedded Postgres:
+ * concurrent inserts that bypass the application must still leave no overlapping live appointments,
+ * migrating a database that already holds overlaps cancels only upcoming bookings and refuses the rest,
+ * and a constraint-guarded INSERT is measured against the locked check-then-insert it replaced.
+ */
+class AppointmentOverlapConstraintTest {
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final int WRITERS = 16;
+    private static final int BOOKINGS_PER_WRITER = 200;
+
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void start() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void concurrentOverlappingInsertsLeaveNoOverlap() throws Exception {
+        DataSource dataSource = newDatabase("concurrent_inserts");
+        migrate(dataSource, null);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        UUID doctorId = insertDoctor(jdbc, "concurrent");
+        UUID patientId = insertPatient(jdbc, "concurrent");
+
+        // Starts five minutes apart with 30 minute durations, so every writer overlaps several others
+        Instant base = Instant.now().plus(7, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+        CyclicBarrier start = new CyclicBarrier(WRITERS);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                Instant slot = base.plus(5L * i, ChronoUnit.MINUTES);
+                results.add(writers.submit(() -> {
+                    try (Connection connection = dataSource.getConnection();
+                         PreparedStatement insert = connection.prepareStatement(
+                                 "INSERT INTO appointments (patient_id, doctor_id, appointment_datetime, type) "
+                                         + "VALUES (?, ?, ?, 'CONSULTATION')")) {
+                        insert.setObject(1, patientId);
+                        insert.setObject(2, doctorId);
+                        insert.setTimestamp(3, Timestamp.from(slot));
+                        start.await();
+                        insert.executeUpdate();
+                        booked.incrementAndGet();
+                    } catch (SQLException e) {
+                        assertThat(e.getSQLState()).isEqualTo(EXCLUSION_VIOLATION);
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+
+        assertThat(booked.get()).isPositive();
+        assertThat(booked.get() + rejected.get()).isEqualTo(WRITERS);
+        assertThat(liveAppointments(jdbc, doctorId)).isEqualTo(booked.get());
+        assertThat(overlappingPairs(jdbc)).isZero();
+    }
+
+    @Test
+    void migrationCancelsExistingOverlapsInBookingOrder() {
+        DataSource dataSource = newDatabase("existing_overlaps");
+        migrate(dataSource, "6");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        UUID doctorId = insertDoctor(jdbc, "overlaps");
+        UUID patientId = insertPatient(jdbc, "overlaps");
+
+        // 09:00 was booked first, so 09:15 loses to it; 09:40 only overlapped the cancelled 09:15 and stays
+        Instant day = Instant.now().plus(7, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+        Instant bookedAt = Instant.now().minus(1, ChronoUnit.DAYS);
+        UUID first = insertAppointment(jdbc, doctorId, patientId, day.plus(9 * 60, ChronoUnit.MINUTES), bookedAt);
+        UUID second = insertAppointment(jdbc, doctorId, patientId, day.plus(9 * 60 + 15, ChronoUnit.MINUTES),
+                bookedAt.plusSeconds(60));
+        UUID third = insertAppointment(jdbc, doctorId, patientId, day.plus(9 * 60 + 40, ChronoUnit.MINUTES),
+                bookedAt.plusSeconds(120));
+
+        migrate(dataSource, null);
+
+        assertThat(status(jdbc, first)).isEqualTo("SCHEDULED");
+        assertThat(status(jdbc, second)).isEqualTo("CANCELLED");
+        assertThat(status(jdbc, third)).isEqualTo("SCHEDULED");
+        assertThat(overlappingPairs(jdbc)).isZero();
+    }
+
+    @Test
+    void migrationKeepsCompletedVisitsOverUpcomingBookings() {
+        DataSource dataSource = newDatabase("completed_wins");
+        migrate(dataSource, "6");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        UUID doctorId = insertDoctor(jdbc, "completed");
+        UUID patientId = insertPatient(jdbc, "completed");
+
+        // The upcoming booking is older, but a visit already marked completed is never cancelled
+        Instant day = Instant.now().plus(3, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+        Instant bookedAt = Instant.now().minus(10, ChronoUnit.DAYS);
+        UUID upcoming = insertAppointment(jdbc, doctorId, patientId, day.plus(10 * 60, ChronoUnit.MINUTES), bookedAt);
+        UUID completed = insertAppointment(jdbc, doctorId, patientId, day.plus(10 * 60 + 10, ChronoUnit.MINUTES),
+                bookedAt.plusSeconds(60), "COMPLETED");
+
+        migrate(dataSource, null);
+
+        assertThat(status(jdbc, upcoming)).isEqualTo("CANCELLED");
+        assertThat(status(jdbc, completed)).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void migrationFailsOnOverlapsItMustNotRewrite() {
+        DataSource dataSource = newDatabase("past_overlaps");
+        migrate(dataSource, "6");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        UUID doctorId = insertDoctor(jdbc, "past");
+        UUID patientId = insertPatient(jdbc, "past");
+
+        Instant day = Instant.now().minus(30, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+        Instant bookedAt = day.minus(5, ChronoUnit.DAYS);
+        UUID first = insertAppointment(jdbc, doctorId, patientId, day.plus(9 * 60, ChronoUnit.MINUTES), bookedAt,
+                "COMPLETED");
+        UUID second = insertAppointment(jdbc, doctorId, patientId, day.plus(9 * 60 + 15, ChronoUnit.MINUTES),
+                bookedAt.plusSeconds(60), "COMPLETED");
+
+        assertThatThrownBy(() -> migrate(dataSource, null))
+                .isInstanceOf(FlywayException.class)
+                .hasMessageContaining(first.toString())
+                .hasMessageContaining(second.toString());
+        assertThat(status(jdbc, first)).isEqualTo("COMPLETED");
+        assertThat(status(jdbc, second)).isEqualTo("COMPLETED");
+    }
+
+    /**
+     * Booking throughput of a single INSERT guarded by the constraint against the check-then-insert it
+     * replaced, which had to lock the doctor row so that two checks could not both pass. Every booking
+     * targets a distinct slot of the same doctor, so the difference is the cost of serialising on the lock.
+     */
+    @Test
+    void singleInsertBooksFasterThanLockedCheckThenInsert() throws Exception {
+        DataSource dataSource = newDatabase("booking_throughput");
+        migrate(dataSource, null);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        UUID patientId = insertPatient(jdbc, "throughput");
+        UUID lockedDoctor = insertDoctor(jdbc, "locked");
+        UUID constrainedDoctor = insertDoctor(jdbc, "constrained");
+        Instant base = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+
+        double locked = bookingsPerSecond(dataSource, (connection, slot) -> {
+            connection.setAutoCommit(false);
+            try (PreparedStatement lock = connection.prepareStatement("SELECT id FROM doctors WHERE id = ? FOR UPDATE");
+                 PreparedStatement check = connection.prepareStatement("SELECT count(*) FROM appointments "
+                         + "WHERE doctor_id = ? AND status <> 'CANCELLED' AND time_range && tstzrange(?, ?, '[)')");
+                 PreparedStatement insert = insertStatement(connection)) {
+                lock.setObject(1, lockedDoctor);
+                lock.executeQuery().close();
+                check.setObject(1, lockedDoctor);
+                check.setTimestamp(2, Timestamp.from(slot));
+                check.setTimestamp(3, Timestamp.from(slot.plus(30, ChronoUnit.MINUTES)));
+                try (ResultSet conflicts = check.executeQuery()) {
+                    conflicts.next();
+                    assertThat(conflicts.getInt(1)).isZero();
+                }
+                bind(insert, patientId, lockedDoctor, slot).executeUpdate();
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }, base);
+        double constrained = bookingsPerSecond(dataSource, (connection, slot) -> {
+            try (PreparedStatement insert = insertStatement(connection)) {
+                bind(insert, patientId, constrainedDoctor, slot).executeUpdate();
+            }
+        }, base);
+
+        System.out.printf("Bookings/s with %d writers: check-then-insert %.0f, single insert %.0f (%.1fx)%n",
+                WRITERS, locked, constrained, constrained / locked);
+        assertThat(liveAppointments(jdbc, lockedDoctor)).isEqualTo(WRITERS * BOOKINGS_PER_WRITER);
+        assertThat(liveAppointments(jdbc, constrainedDoctor)).isEqualTo(WRITERS * BOOKINGS_PER_WRITER);
+        assertThat(overlappingPairs(jdbc)).isZero();
+    }
+
+    private static double bookingsPerSecond(DataSource dataSource, Booking booking, Instant base) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(WRITERS);
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                int offset = writer;
+                results.add(writers.submit(() -> {
+                    try (Connection connection = dataSource.getConnection()) {
+                        start.await();
+                        long started = System.nanoTime();
+                        for (int i = 0; i < BOOKINGS_PER_WRITER; i++) {
+                            // Interleaved 30 minute slots: writers never collide, only contend
+                            long slotIndex = (long) i * WRITERS + offset;
+                            booking.book(connection, base.plus(30 * slotIndex, ChronoUnit.MINUTES));
+                        }
+                        return System.nanoTime() - started;
+                    }
+                }));
+            }
+            long slowestNanos = 0;
+            for (Future<Long> result : results) {
+                slowestNanos = Math.max(slowestNanos, result.get());
+            }
+            return WRITERS * BOOKINGS_PER_WRITER / (slowestNanos / 1e9);
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    private static PreparedStatement insertStatement(Connection connection) throws SQLException {
+        return connection.prepareStatement("INSERT INTO appointments (patient_id, doctor_id, appointment_datetime, "
+                + "type) VALUES (?, ?, ?, 'CONSULTATION')");
+    }
+
+    private static PreparedStatement bind(PreparedStatement insert, UUID patientId, UUID doctorId, Instant slot)
+            throws SQLException {
+        insert.setObject(1, patientId);
+        insert.setObject(2, doctorId);
+        insert.setTimestamp(3, Timestamp.from(slot));
+        return insert;
+    }
+
+    @FunctionalInterface
+    private interface Booking {
+        void book(Connection connection, Instant slot) throws SQLException;
+    }
+
+    private static DataSource newDatabase(String name) {
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE DATABASE " + name);
+        return postgres.getDatabase("postgres", name);
+    }
+
+    private static void migrate(DataSource dataSource, String target) {
+        var configuration = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration");
+        if (target != null) {
+            configuration.target(target);
+        }
+        configuration.load().migrate();
+    }
+
+    private static UUID insertDoctor(JdbcTemplate jdbc, String name) {
+        UUID userId = insertUser(jdbc, "doctor-" + name, "DOCTOR");
+        UUID doctorId = UUID.randomUUID();
+        jdbc.update("INSERT INTO doctors (id, user_id, speciality, license_number) VALUES (?, ?, 'Cardiology', ?)",
+                doctorId, userId, "LIC-" + name);
+        return doctorId;
+    }
+
+    private static UUID insertPatient(JdbcTemplate jdbc, String name) {
+        UUID userId = insertUser(jdbc, "patient-" + name, "PATIENT");
+        UUID patientId = UUID.randomUUID();
+        jdbc.update("INSERT INTO patients (id, user_id) VALUES (?, ?)", patientId, userId);
+        return patientId;
+    }
+
+    private static UUID insertUser(JdbcTemplate jdbc, String username, String role) {
+        UUID userId = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, username, email, keycloak_id, role) VALUES (?, ?, ?, ?, ?)",
+                userId, username, username + "@test.example", userId.toString(), role);
+        return userId;
+    }
+
+    private static UUID insertAppointment(JdbcTemplate jdbc, UUID doctorId, UUID patientId, Instant start,
+                                          Instant createdAt) {
+        return insertAppointment(jdbc, doctorId, patientId, start, createdAt, "SCHEDULED");
+    }
+
+    private static UUID insertAppointment(JdbcTemplate jdbc, UUID doctorId, UUID patientId, Instant start,
+                                          Instant createdAt, String status) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO appointments (id, patient_id, doctor_id, appointment_datetime, status, type, "
+                        + "created_at) VALUES (?, ?, ?, ?, ?, 'CONSULTATION', ?)",
+                id, patientId, doctorId, Timestamp.from(start), status, Timestamp.from(createdAt));
+        return id;
+    }
+
+    private static String status(JdbcTemplate jdbc, UUID appointmentId) {
+        return jdbc.queryForObject("SELECT status FROM appointments WHERE id = ?", String.class, appointmentId);
+    }
+
+    private static int liveAppointments(JdbcTemplate jdbc, UUID doctorId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM appointments WHERE doctor_id = ? AND status <> 'CANCELLED'",
+                Integer.class, doctorId);
+    }
+
+    private static int overlappingPairs(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM appointments a JOIN appointments b "
+                + "ON a.doctor_id = b.doctor_id AND a.id < b.id AND a.time_range && b.time_range "
+                + "WHERE a.status <> 'CANCELLED' AND b.status <> 'CANCELLED'", Integer.class);
+    }
+}
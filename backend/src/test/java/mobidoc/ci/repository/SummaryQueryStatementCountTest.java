@@ -0,0 +1,134 @@
+package mobidoc.ci.repository;
+
+import mobidoc.ci.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement-count regression for the list endpoints. A summary page costs the content query plus the count
+ * query, whatever the page size, and the count agrees with the rows the content query can return. A full
+ * doctor or patient page adds at most one batched query per collection the mapper walks, never one per row.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "monitoring.sql.response-header=true")
+class SummaryQueryStatementCountTest extends PostgresIntegrationTest {
+
+    private static final Pattern STATEMENTS = Pattern.compile("statements=(\\d+)");
+    private static final int WITH_PROFILE = 30;
+    private static final int WITHOUT_PROFILE = 3;
+    // Content, count and one batch each for schedules or medical records, appointments and documents
+    private static final int MAX_FULL_PAGE_STATEMENTS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE users, user_profiles, doctors, patients CASCADE");
+        for (int i = 0; i < WITH_PROFILE + WITHOUT_PROFILE; i++) {
+            UUID doctorUser = addUser("doctor" + i, "DOCTOR", i < WITH_PROFILE);
+            UUID doctorId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO doctors (id, user_id, speciality, license_number, experience_years, "
+                            + "consultation_fee) VALUES (?, ?, 'Cardiology', ?, 10, ?)",
+                    doctorId, doctorUser, "LIC-" + i, BigDecimal.valueOf(50));
+            for (int day = 1; day <= 3; day++) {
+                jdbcTemplate.update("INSERT INTO schedules (id, doctor_id, day_of_week, start_time, end_time, status) "
+                        + "VALUES (?, ?, ?, '08:00', '12:00', 'ACTIVE')", UUID.randomUUID(), doctorId, day);
+            }
+
+            UUID patientUser = addUser("patient" + i, "PATIENT", i < WITH_PROFILE);
+            UUID patientId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO patients (id, user_id, blood_group) VALUES (?, ?, 'O+')",
+                    patientId, patientUser);
+            for (int record = 0; record < 3; record++) {
+                jdbcTemplate.update("INSERT INTO medical_records (id, patient_id, type, description, record_date) "
+                        + "VALUES (?, ?, 'LAB_RESULT', 'Full blood count within normal limits', CURRENT_DATE - ?)",
+                        UUID.randomUUID(), patientId, record);
+            }
+        }
+    }
+
+    @Test
+    void doctorSummariesRunContentAndCountQueriesOnly() throws Exception {
+        assertThat(statements("/api/doctors/summaries?page=0&size=5", "PATIENT")).isEqualTo(2);
+        assertThat(statements("/api/doctors/summaries?page=0&size=25", "PATIENT")).isEqualTo(2);
+    }
+
+    @Test
+    void patientSummariesRunContentAndCountQueriesOnly() throws Exception {
+        assertThat(statements("/api/patients/summaries?page=0&size=5", "STAFF")).isEqualTo(2);
+        assertThat(statements("/api/patients/summaries?page=0&size=25", "STAFF")).isEqualTo(2);
+    }
+
+    @Test
+    void doctorPagesBatchTheirCollections() throws Exception {
+        int smallPage = statements("/api/doctors?page=0&size=5", "PATIENT");
+        assertThat(smallPage).isLessThanOrEqualTo(MAX_FULL_PAGE_STATEMENTS);
+        assertThat(statements("/api/doctors?page=0&size=25", "PATIENT")).isEqualTo(smallPage);
+    }
+
+    @Test
+    void patientPagesBatchTheirCollections() throws Exception {
+        int smallPage = statements("/api/patients?page=0&size=5", "STAFF");
+        assertThat(smallPage).isLessThanOrEqualTo(MAX_FULL_PAGE_STATEMENTS);
+        assertThat(statements("/api/patients?page=0&size=25", "STAFF")).isEqualTo(smallPage);
+    }
+
+    @Test
+    void summaryTotalsCountOnlyRowsTheContentQueryReturns() throws Exception {
+        mockMvc.perform(get("/api/doctors/summaries?page=0&size=5").with(jwt().authorities(role("PATIENT"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(WITH_PROFILE));
+        mockMvc.perform(get("/api/patients/summaries?page=0&size=5").with(jwt().authorities(role("STAFF"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(WITH_PROFILE));
+    }
+
+    private int statements(String url, String roleName) throws Exception {
+        MvcResult result = mockMvc.perform(get(url).with(jwt().authorities(role(roleName))))
+                .andExpect(status().isOk())
+                .andReturn();
+        String header = result.getResponse().getHeader("X-SQL-Statistics");
+        assertThat(header).isNotNull();
+        Matcher matcher = STATEMENTS.matcher(header);
+        assertThat(matcher.find()).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private UUID addUser(String username, String roleName, boolean withProfile) {
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, keycloak_id, role, status) "
+                        + "VALUES (?, ?, ?, ?, ?, 'ACTIVE')",
+                userId, username, username + "@test.example", userId.toString(), roleName);
+        if (withProfile) {
+            jdbcTemplate.update("INSERT INTO user_profiles (id, user_id, first_name, last_name) VALUES (?, ?, ?, ?)",
+                    UUID.randomUUID(), userId, "First" + username, "Last" + username);
+        }
+        return userId;
+    }
+
+    private static SimpleGrantedAuthority role(String name) {
+        return new SimpleGrantedAuthority("ROLE_" + name);
+    }
+}
@@ -0,0 +1,57 @@
+package mobidoc.ci.repository.support;
+
+import mobidoc.ci.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        KeysetCursor cursor = new KeysetCursor(ZonedDateTime.of(2026, 3, 14, 9, 30, 15, 123_456_789, ZoneOffset.UTC),
+                UUID.randomUUID());
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void decodingNormalisesTheTimestampToUtc() {
+        ZonedDateTime local = ZonedDateTime.of(2026, 3, 14, 10, 30, 0, 0, ZoneOffset.ofHours(1));
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(local, UUID.randomUUID()).encode());
+
+        assertThat(decoded.timestamp().toInstant()).isEqualTo(local.toInstant());
+        assertThat(decoded.timestamp().getZone()).isEqualTo(ZoneOffset.UTC);
+    }
+
+    @Test
+    void corruptedCursorIsRejected() {
+        String token = new KeysetCursor(ZonedDateTime.now(ZoneOffset.UTC), UUID.randomUUID()).encode();
+
+        assertThatThrownBy(() -> KeysetCursor.decode(token.substring(0, token.length() / 2) + "!"))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("1700000000:0")))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("1700000000:0:not-a-uuid")))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("1700000000:0:" + UUID.randomUUID() + ":extra")))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void pageSizeMustBePositiveAndIsCapped() {
+        assertThatThrownBy(() -> KeysetCursor.pageSize(0)).isInstanceOf(InvalidCursorException.class);
+        assertThat(KeysetCursor.pageSize(KeysetCursor.MAX_PAGE_SIZE + 1)).isEqualTo(KeysetCursor.MAX_PAGE_SIZE);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
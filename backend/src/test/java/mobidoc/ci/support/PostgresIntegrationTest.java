@@ -0,0 +1,56 @@
+package mobidoc.ci.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Boots the application against one ephemeral Postgres per test JVM, migrated by Flyway like production.
+ * Subclasses clean up the rows they create; the schema is shared.
+ */
+@SpringBootTest(properties = {
+        "spring.security.oauth2.resourceserver.jwt.issuer-uri=http://localhost:0/realms/test",
+        "storage.documents.processing.enabled=false",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.keycloak=WARN"
+})
+public abstract class PostgresIntegrationTest {
+
+    private static EmbeddedPostgres postgres;
+    private static Path documentsRoot;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("storage.documents.root", documentsRoot::toString);
+        registry.add("storage.uploads.root", () -> documentsRoot.resolve(".uploads").toString());
+    }
+
+    private static synchronized void start() {
+        if (postgres != null) {
+            return;
+        }
+        try {
+            postgres = EmbeddedPostgres.builder().start();
+            documentsRoot = Files.createTempDirectory("test-documents");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded Postgres", e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                postgres.close();
+            } catch (IOException ignored) {
+                // The process is exiting; the data directory is temporary
+            }
+        }));
+    }
+}